@@ -0,0 +1,59 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic calendar data shaped like a team/pod response: every member has a handful of
+// leaves spread across one year.
+final class Fixtures {
+
+    static final LocalDate YEAR_START = LocalDate.of(2026, 1, 1);
+
+    private static final String[] COUNTRIES = {"CN", "US", "DE", "GB", "IN"};
+
+    private Fixtures() {
+    }
+
+    static List<User> members(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .id("u" + i)
+                    .employeeID("E" + i)
+                    .displayName("User " + i)
+                    .email("user" + i + "@example.com")
+                    .country(COUNTRIES[i % COUNTRIES.length])
+                    .teamId("team-" + (i / 10))
+                    .build());
+        }
+        return users;
+    }
+
+    static List<LeaveRecord> leaves(List<User> members, int perMember, long seed) {
+        Random random = new Random(seed);
+        LeaveRecord.DataSource[] sources = LeaveRecord.DataSource.values();
+        LeaveRecord.LeaveStatus[] statuses = LeaveRecord.LeaveStatus.values();
+        List<LeaveRecord> leaves = new ArrayList<>(members.size() * perMember);
+        int next = 0;
+        for (int i = 0; i < perMember; i++) {
+            for (User member : members) {
+                LocalDate start = YEAR_START.plusDays(random.nextInt(360));
+                leaves.add(LeaveRecord.builder()
+                        .id("l" + next++)
+                        .userId(member.getId())
+                        .startDate(start)
+                        .endDate(start.plusDays(random.nextInt(5)))
+                        .source(sources[random.nextInt(sources.length)])
+                        .status(statuses[random.nextInt(statuses.length)])
+                        .note("Leave " + next)
+                        .build());
+            }
+        }
+        return leaves;
+    }
+}
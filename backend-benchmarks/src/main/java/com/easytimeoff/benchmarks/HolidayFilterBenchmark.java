@@ -0,0 +1,113 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.domain.PublicHoliday;
+import com.easytimeoff.service.HolidayStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-year, per-country holiday lookups against a generated holidays.json of the given size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayFilterBenchmark {
+
+    private static final int FIRST_YEAR = 2020;
+
+    @Param({"5", "50"})
+    int countries;
+
+    @Param({"10"})
+    int years;
+
+    @Param({"15"})
+    int holidaysPerCountry;
+
+    private Path file;
+    private HolidayStore store;
+    private int year;
+    private String country;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        file = Files.createTempFile("holidays-bench", ".json");
+        objectMapper.writeValue(file.toFile(), holidaysJson(objectMapper));
+        store = new HolidayStore(objectMapper, file.toString(), false);
+        store.init();
+        year = FIRST_YEAR + years / 2;
+        country = countryCode(countries / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<PublicHoliday> byCountry() {
+        return store.getHolidays(year, country);
+    }
+
+    @Benchmark
+    public byte[] byCountryJson() {
+        return store.getHolidaysJson(year, country);
+    }
+
+    @Benchmark
+    public byte[] allCountriesJson() {
+        return store.getHolidaysJson(year, null);
+    }
+
+    private ObjectNode holidaysJson(ObjectMapper objectMapper) {
+        ObjectNode root = objectMapper.createObjectNode();
+        for (int y = 0; y < years; y++) {
+            ObjectNode byCountry = root.putObject(String.valueOf(FIRST_YEAR + y));
+            for (int c = 0; c < countries; c++) {
+                byCountry.set(countryCode(c), holidays(objectMapper, FIRST_YEAR + y, c));
+            }
+            byCountry.set(HolidayStore.ALL_COUNTRIES, holidays(objectMapper, FIRST_YEAR + y, countries));
+        }
+        return root;
+    }
+
+    private ArrayNode holidays(ObjectMapper objectMapper, int year, int salt) {
+        ArrayNode holidays = objectMapper.createArrayNode();
+        LocalDate first = LocalDate.of(year, 1, 1);
+        for (int h = 0; h < holidaysPerCountry; h++) {
+            holidays.addObject()
+                    .put("date", first.plusDays((h * 23L + salt) % 365).toString())
+                    .put("name", "Holiday " + h);
+        }
+        return holidays;
+    }
+
+    private static String countryCode(int index) {
+        return "C" + index;
+    }
+}
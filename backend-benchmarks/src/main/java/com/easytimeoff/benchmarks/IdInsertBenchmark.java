@@ -0,0 +1,138 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.util.TimeOrderedIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Insert throughput for random (UUID v4) vs time-ordered (UUIDv7-style) string ids on a
+// view_history-shaped table, in committed batches of 1000; the score is rows per second. The
+// table keeps growing over the trial, so later batches land in a large primary-key index. At
+// the end of the trial the index size is printed: pg_relation_size of the primary key on
+// PostgreSQL, the table's disk usage on H2 (which has no per-index size).
+//
+// Without a url it uses a file-backed H2 database in a temp directory; point it at PostgreSQL with
+//   java -jar target/benchmarks.jar IdInsert -p url=jdbc:postgresql://localhost:5432/easytimeoff -p user=postgres -p password=postgres
+// It creates and drops its own id_bench_* tables.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random_v4", "time_ordered"})
+    String ids;
+
+    @Param({""})
+    String url;
+
+    @Param({"sa"})
+    String user;
+
+    @Param({""})
+    String password;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<String> generator;
+    private String table;
+    private boolean postgres;
+    private long rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        String jdbcUrl = url;
+        if (jdbcUrl.isEmpty()) {
+            directory = Files.createTempDirectory("id-bench");
+            jdbcUrl = "jdbc:h2:file:" + directory.resolve("bench");
+        }
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+        generator = "time_ordered".equals(ids) ? TimeOrderedIds::next : () -> UUID.randomUUID().toString();
+        table = "id_bench_" + ids;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id VARCHAR(255) PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                    + "item_id VARCHAR(255) NOT NULL, timestamp BIGINT NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, user_id, item_id, timestamp) VALUES (?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insert.close();
+        connection.setAutoCommit(true);
+        String sizeLabel = postgres ? "pkey index" : "table on disk";
+        long bytes = postgres
+                ? scalar("SELECT pg_relation_size('" + table + "_pkey')")
+                : scalar("CALL DISK_SPACE_USED('" + table.toUpperCase(Locale.ROOT) + "')");
+        System.out.printf("%n%s: %,d rows, %s %,d KiB%n", ids, rows, sizeLabel, bytes / 1024);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            rows++;
+            insert.setString(1, generator.get());
+            insert.setString(2, "u" + (rows % 5000));
+            insert.setString(3, "t" + (rows % 300));
+            insert.setLong(4, System.currentTimeMillis());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private long scalar(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
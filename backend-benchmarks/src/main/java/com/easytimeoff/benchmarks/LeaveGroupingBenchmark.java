@@ -0,0 +1,50 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.web.UserLeavesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// groupingBy of range-query results into per-member entries, as done by the team and pod
+// calendar endpoints.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveGroupingBenchmark {
+
+    @Param({"20", "200", "2000"})
+    int members;
+
+    @Param({"4"})
+    int leavesPerMember;
+
+    private List<User> users;
+    private List<LeaveRecord> leaves;
+
+    @Setup
+    public void setUp() {
+        users = Fixtures.members(members);
+        leaves = Fixtures.leaves(users, leavesPerMember, 42);
+    }
+
+    @Benchmark
+    public List<UserLeavesResponse> group() {
+        return UserLeavesResponse.of(users, leaves);
+    }
+}
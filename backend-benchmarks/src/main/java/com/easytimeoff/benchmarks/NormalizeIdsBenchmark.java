@@ -0,0 +1,54 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.util.RequestIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Parsing of the ids query parameter, sent either as one comma-joined value or repeated.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizeIdsBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int ids;
+
+    private List<String> joined;
+    private List<String> repeated;
+
+    @Setup
+    public void setUp() {
+        List<String> values = new ArrayList<>(ids);
+        for (int i = 0; i < ids; i++) {
+            values.add("user-" + i);
+        }
+        repeated = List.copyOf(values);
+        joined = List.of(String.join(", ", values));
+    }
+
+    @Benchmark
+    public List<String> commaJoined() {
+        return RequestIds.normalize(joined);
+    }
+
+    @Benchmark
+    public List<String> repeatedParams() {
+        return RequestIds.normalize(repeated);
+    }
+}
@@ -0,0 +1,71 @@
+package com.easytimeoff.benchmarks;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.web.CompactLeavesResponse;
+import com.easytimeoff.web.UserLeavesResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of calendar payloads, using an ObjectMapper configured the way Spring
+// Boot configures the one behind the controllers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "200", "2000"})
+    int members;
+
+    @Param({"4"})
+    int leavesPerMember;
+
+    private ObjectMapper objectMapper;
+    private List<User> users;
+    private List<LeaveRecord> leaves;
+    private List<UserLeavesResponse> grouped;
+    private CompactLeavesResponse compact;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        users = Fixtures.members(members);
+        leaves = Fixtures.leaves(users, leavesPerMember, 42);
+        grouped = UserLeavesResponse.of(users, leaves);
+        compact = CompactLeavesResponse.of(users, leaves);
+    }
+
+    @Benchmark
+    public byte[] userLeaves() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(grouped);
+    }
+
+    @Benchmark
+    public byte[] compact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compact);
+    }
+
+    // Grouping plus serialization: the CPU cost of one calendar response after the data is loaded.
+    @Benchmark
+    public byte[] groupAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(UserLeavesResponse.of(users, leaves));
+    }
+}
@@ -1,5 +1,6 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,7 +22,7 @@ import lombok.NoArgsConstructor;
 public class FavoriteTeam {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @Column(name = "user_id", nullable = false)
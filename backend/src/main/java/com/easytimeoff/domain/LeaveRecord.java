@@ -1,5 +1,6 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,7 +15,11 @@ import java.time.LocalDate;
                 @Index(name = "idx_leaves_user_id", columnList = "user_id"),
                 @Index(name = "idx_leaves_start_date", columnList = "start_date"),
                 @Index(name = "idx_leaves_end_date", columnList = "end_date"),
-                @Index(name = "idx_leaves_user_date", columnList = "user_id,start_date,end_date")
+                @Index(name = "idx_leaves_user_date", columnList = "user_id,start_date,end_date"),
+                @Index(name = "idx_leaves_start_date_id", columnList = "start_date,id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_leaves_external_id_source", columnNames = {"external_id", "source"})
         }
 )
 @Data
@@ -24,7 +29,7 @@ import java.time.LocalDate;
 public class LeaveRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @Column(name = "user_id", nullable = false)
@@ -46,6 +51,10 @@ public class LeaveRecord {
 
     private String note;
 
+    // Key of the record in the feed it was imported from (HR, Outlook); null for manual entries
+    @Column(name = "external_id")
+    private String externalId;
+
     public enum DataSource {
         HR, OUTLOOK, MANUAL
     }
@@ -1,6 +1,9 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.service.EntityCacheListener;
+import com.easytimeoff.service.GroupTypeaheadListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +19,7 @@ import java.util.Set;
                 @Index(name = "idx_pods_name", columnList = "name")
         }
 )
+@EntityListeners({GroupTypeaheadListener.class, EntityCacheListener.class})
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,7 +32,10 @@ public class Pod {
     @Column(nullable = false)
     private String name;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Lazy: list endpoints read TeamSummary/PodSummary projections; detail reads use an entity graph,
+    // and any remaining lazy loads are batched.
+    @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "pod_members",
             joinColumns = @JoinColumn(name = "pod_id"),
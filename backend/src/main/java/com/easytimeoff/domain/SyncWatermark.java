@@ -0,0 +1,27 @@
+package com.easytimeoff.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Position an incremental sync source has been applied up to; opaque to everything but the source.
+@Entity
+@Table(name = "sync_watermarks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncWatermark {
+
+    @Id
+    @Column(name = "source_name")
+    private String sourceName;
+
+    @Column(length = 1024)
+    private String watermark;
+
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+}
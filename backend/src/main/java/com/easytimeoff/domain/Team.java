@@ -1,6 +1,10 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.service.EntityCacheListener;
+import com.easytimeoff.service.GroupTypeaheadListener;
+import com.easytimeoff.util.TimeOrderedId;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +23,7 @@ import java.util.Set;
                 @Index(name = "idx_teams_created_by_type", columnList = "created_by,type")
         }
 )
+@EntityListeners({GroupTypeaheadListener.class, EntityCacheListener.class})
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +31,7 @@ import java.util.Set;
 public class Team {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @Column(nullable = false)
@@ -42,7 +47,10 @@ public class Team {
     // Storing member IDs directly for simplicity in this specific "Easy" architecture 
     // to match the frontend JSON structure. 
     // In a strict Relational model, this would be a @ManyToMany with User.
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Lazy: list endpoints read TeamSummary/PodSummary projections; detail reads use an entity graph,
+    // and any remaining lazy loads are batched.
+    @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "team_members",
             joinColumns = @JoinColumn(name = "team_id"),
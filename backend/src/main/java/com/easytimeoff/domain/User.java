@@ -1,5 +1,7 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.service.EntityCacheListener;
+import com.easytimeoff.service.UserSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,9 +15,11 @@ import lombok.NoArgsConstructor;
                 @Index(name = "idx_users_employee_id", columnList = "employee_id"),
                 @Index(name = "idx_users_email", columnList = "email"),
                 @Index(name = "idx_users_team_id", columnList = "team_id"),
-                @Index(name = "idx_users_ad_principal_id", columnList = "ad_principal_id")
+                @Index(name = "idx_users_ad_principal_id", columnList = "ad_principal_id"),
+                @Index(name = "idx_users_display_name_id", columnList = "display_name,id")
         }
 )
+@EntityListeners({UserSearchIndexListener.class, EntityCacheListener.class})
 @Data
 @Builder
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.easytimeoff.domain;
 
+import com.easytimeoff.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,26 +16,29 @@ import lombok.NoArgsConstructor;
         }
 )
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ViewHistory {
 
+    // Length of the user_id, item_id and name columns.
+    public static final int MAX_TEXT_LENGTH = 255;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
-    @Column(name = "user_id", nullable = false)
+    @Column(name = "user_id", nullable = false, length = MAX_TEXT_LENGTH)
     private String userId;
 
-    @Column(name = "item_id", nullable = false)
+    @Column(name = "item_id", nullable = false, length = MAX_TEXT_LENGTH)
     private String itemId;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ViewType type;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = MAX_TEXT_LENGTH)
     private String name;
 
     @Column(nullable = false)
@@ -33,4 +33,44 @@ public interface LeaveRepository extends JpaRepository<LeaveRecord, String> {
             @Param("endDate") LocalDate endDate,
             Pageable pageable
     );
+
+    // Keyset pagination (startDate DESC, id DESC): first page via findAllBy, then pages
+    // following the row identified by afterStart/afterId. The seek is a row-value comparison so it
+    // is a range condition on (start_date, id); the leading startDate bound lets planners that do
+    // not match row values against an index still seek instead of filtering from the top.
+    List<LeaveRecord> findAllBy(Pageable pageable);
+
+    @Query("SELECT l FROM LeaveRecord l WHERE " +
+           "l.startDate <= :afterStart AND (l.startDate, l.id) < (:afterStart, :afterId) " +
+           "ORDER BY l.startDate DESC, l.id DESC")
+    List<LeaveRecord> findPageAfter(
+            @Param("afterStart") LocalDate afterStart,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT l FROM LeaveRecord l WHERE l.userId IN :userIds " +
+           "AND (:startDate IS NULL OR l.endDate >= :startDate) " +
+           "AND (:endDate IS NULL OR l.startDate <= :endDate) " +
+           "ORDER BY l.startDate DESC, l.id DESC")
+    List<LeaveRecord> findFirstPageByUserIdInAndDateRange(
+            @Param("userIds") List<String> userIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable
+    );
+
+    @Query("SELECT l FROM LeaveRecord l WHERE l.userId IN :userIds " +
+           "AND (:startDate IS NULL OR l.endDate >= :startDate) " +
+           "AND (:endDate IS NULL OR l.startDate <= :endDate) " +
+           "AND l.startDate <= :afterStart AND (l.startDate, l.id) < (:afterStart, :afterId) " +
+           "ORDER BY l.startDate DESC, l.id DESC")
+    List<LeaveRecord> findByUserIdInAndDateRangeAfter(
+            @Param("userIds") List<String> userIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("afterStart") LocalDate afterStart,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
 }
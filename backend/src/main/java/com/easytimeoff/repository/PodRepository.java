@@ -3,11 +3,31 @@ package com.easytimeoff.repository;
 import com.easytimeoff.domain.Pod;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PodRepository extends JpaRepository<Pod, String> {
     List<Pod> findByNameContainingIgnoreCase(String query);
     Page<Pod> findByNameContainingIgnoreCase(String query, Pageable pageable);
+
+    // Detail reads: members fetched in the same query
+    @EntityGraph(attributePaths = "memberIds")
+    Optional<Pod> findWithMembersById(String id);
+
+    @Query("SELECT DISTINCT p.id FROM Pod p JOIN p.memberIds m WHERE m IN :userIds")
+    List<String> findIdsByMemberIdIn(@Param("userIds") Collection<String> userIds);
+
+    // List reads: one aggregate query, no member rows
+    @Query("SELECT new com.easytimeoff.repository.PodSummary(p.id, p.name, COUNT(m)) " +
+           "FROM Pod p LEFT JOIN p.memberIds m " +
+           "WHERE (:query IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "GROUP BY p.id, p.name " +
+           "ORDER BY p.name ASC, p.id ASC")
+    List<PodSummary> findSummaries(@Param("query") String query, Pageable pageable);
 }
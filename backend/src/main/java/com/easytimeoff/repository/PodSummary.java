@@ -0,0 +1,4 @@
+package com.easytimeoff.repository;
+
+// Lightweight pod row for list views: no member collection, just its size.
+public record PodSummary(String id, String name, long memberCount) {}
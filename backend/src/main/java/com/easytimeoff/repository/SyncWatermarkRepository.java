@@ -0,0 +1,7 @@
+package com.easytimeoff.repository;
+
+import com.easytimeoff.domain.SyncWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermark, String> {
+}
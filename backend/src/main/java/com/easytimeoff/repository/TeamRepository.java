@@ -3,10 +3,15 @@ package com.easytimeoff.repository;
 import com.easytimeoff.domain.Team;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, String> {
@@ -22,4 +27,29 @@ public interface TeamRepository extends JpaRepository<Team, String> {
 
     List<Team> findByTypeAndCreatedBy(Team.TeamType type, String createdBy);
     Page<Team> findByTypeAndCreatedBy(Team.TeamType type, String createdBy, Pageable pageable);
+
+    // Detail reads: members fetched in the same query
+    @EntityGraph(attributePaths = "memberIds")
+    Optional<Team> findWithMembersById(String id);
+
+    @EntityGraph(attributePaths = "memberIds")
+    List<Team> findWithMembersByIdIn(Collection<String> ids);
+
+    @Query("SELECT DISTINCT t.id FROM Team t JOIN t.memberIds m WHERE m IN :userIds")
+    List<String> findIdsByMemberIdIn(@Param("userIds") Collection<String> userIds);
+
+    // List reads: one aggregate query, no member rows
+    @Query("SELECT new com.easytimeoff.repository.TeamSummary(t.id, t.name, t.type, t.createdBy, COUNT(m)) " +
+           "FROM Team t LEFT JOIN t.memberIds m " +
+           "WHERE (:type IS NULL OR t.type = :type) " +
+           "AND (:createdBy IS NULL OR t.createdBy = :createdBy) " +
+           "AND (:query IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "GROUP BY t.id, t.name, t.type, t.createdBy " +
+           "ORDER BY t.name ASC, t.id ASC")
+    List<TeamSummary> findSummaries(
+            @Param("type") Team.TeamType type,
+            @Param("createdBy") String createdBy,
+            @Param("query") String query,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,6 @@
+package com.easytimeoff.repository;
+
+import com.easytimeoff.domain.Team;
+
+// Lightweight team row for list views: no member collection, just its size.
+public record TeamSummary(String id, String name, Team.TeamType type, String createdBy, long memberCount) {}
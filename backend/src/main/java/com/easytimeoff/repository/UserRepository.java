@@ -24,6 +24,36 @@ public interface UserRepository extends JpaRepository<User, String> {
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(u.employeeID) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<User> search(@Param("query") String query, Pageable pageable);
+
+    // Keyset pagination (displayName ASC, id ASC): first page via findAllBy, then pages
+    // following the row identified by afterName/afterId, seeking on (display_name, id) with a
+    // row-value comparison led by a plain displayName bound.
+    List<User> findAllBy(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE " +
+           "u.displayName >= :afterName AND (u.displayName, u.id) > (:afterName, :afterId) " +
+           "ORDER BY u.displayName ASC, u.id ASC")
+    List<User> findPageAfter(@Param("afterName") String afterName, @Param("afterId") String afterId, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE " +
+           "LOWER(u.displayName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.employeeID) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "ORDER BY u.displayName ASC, u.id ASC")
+    List<User> searchFirstPage(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE " +
+           "(LOWER(u.displayName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.employeeID) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "u.displayName >= :afterName AND (u.displayName, u.id) > (:afterName, :afterId) " +
+           "ORDER BY u.displayName ASC, u.id ASC")
+    List<User> searchPageAfter(
+            @Param("query") String query,
+            @Param("afterName") String afterName,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
     
     User findByEmail(String email);
 }
@@ -3,6 +3,8 @@ package com.easytimeoff.repository;
 import com.easytimeoff.domain.ViewHistory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,5 +12,16 @@ import java.util.Optional;
 public interface ViewHistoryRepository extends JpaRepository<ViewHistory, String> {
     List<ViewHistory> findTop10ByUserIdOrderByTimestampDesc(String userId);
     List<ViewHistory> findByUserIdOrderByTimestampDesc(String userId, Pageable pageable);
+
+    @Query("SELECT h FROM ViewHistory h WHERE h.userId = :userId AND " +
+           "h.timestamp <= :afterTimestamp AND (h.timestamp, h.id) < (:afterTimestamp, :afterId) " +
+           "ORDER BY h.timestamp DESC, h.id DESC")
+    List<ViewHistory> findPageAfter(
+            @Param("userId") String userId,
+            @Param("afterTimestamp") long afterTimestamp,
+            @Param("afterId") String afterId,
+            Pageable pageable
+    );
+
     Optional<ViewHistory> findByUserIdAndItemIdAndType(String userId, String itemId, ViewHistory.ViewType type);
 }
@@ -0,0 +1,69 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Computes per-member out-of-office day bitmaps for a date window. Bit i of a member's
+// bitmap is set when the member has a non-rejected leave covering (from + i days).
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    public static final int MAX_WINDOW_DAYS = 731;
+
+    private final LeaveCalendarIndex leaveCalendarIndex;
+
+    public static boolean isValidWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return false;
+        }
+        return ChronoUnit.DAYS.between(from, to) < MAX_WINDOW_DAYS;
+    }
+
+    public Availability compute(Collection<String> memberIds, LocalDate from, LocalDate to) {
+        List<String> members = memberIds.stream().sorted().toList();
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        long firstDay = from.toEpochDay();
+
+        Map<String, BitSet> bitmaps = new HashMap<>(members.size() * 2);
+        for (LeaveRecord leave : leaveCalendarIndex.findLeaves(members, from, to)) {
+            if (leave.getStatus() == LeaveRecord.LeaveStatus.REJECTED) {
+                continue;
+            }
+            int start = (int) Math.max(0, leave.getStartDate().toEpochDay() - firstDay);
+            int end = (int) Math.min(days - 1, leave.getEndDate().toEpochDay() - firstDay);
+            if (start <= end) {
+                bitmaps.computeIfAbsent(leave.getUserId(), id -> new BitSet(days)).set(start, end + 1);
+            }
+        }
+
+        List<BitSet> ordered = members.stream()
+                .map(id -> bitmaps.getOrDefault(id, new BitSet(0)))
+                .toList();
+        int[] outCounts = new int[days];
+        for (BitSet bitmap : ordered) {
+            for (int day = bitmap.nextSetBit(0); day >= 0; day = bitmap.nextSetBit(day + 1)) {
+                outCounts[day]++;
+            }
+        }
+        return new Availability(from, to, days, members, ordered, outCounts);
+    }
+
+    public record Availability(
+            LocalDate from,
+            LocalDate to,
+            int days,
+            List<String> memberIds,
+            List<BitSet> bitmaps,
+            int[] outCounts
+    ) {}
+}
@@ -0,0 +1,167 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.PublicHoliday;
+import com.easytimeoff.domain.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Working-day arithmetic per country. For each (country, year) a bitmap marks working days
+// (weekdays, minus holidays for the country or ALL, plus isWorkday make-up days) and a prefix
+// sum over it answers "working days in [start, end]" in constant time per calendar year touched.
+// Calendars are built on first use and dropped whenever HolidayStore loads a new file. Countries
+// without holidays of their own share the ALL calendar, and the cache is bounded because both
+// country and year come from clients.
+@Service
+@RequiredArgsConstructor
+public class BusinessDayCalendar {
+
+    private final HolidayStore holidayStore;
+
+    private static final int MAX_CALENDARS = 1024;
+
+    private final Cache<String, YearCalendar> calendars = Caffeine.newBuilder()
+            .maximumSize(MAX_CALENDARS)
+            .build();
+    private volatile long generation = -1;
+
+    public int workingDays(String country, LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return 0;
+        }
+        int total = 0;
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            YearCalendar calendar = calendar(country, year);
+            total += calendar.count(
+                    year == start.getYear() ? start.getDayOfYear() - 1 : 0,
+                    year == end.getYear() ? end.getDayOfYear() - 1 : calendar.length() - 1
+            );
+        }
+        return total;
+    }
+
+    public boolean isWorkingDay(String country, LocalDate date) {
+        return calendar(country, date.getYear()).isWorkingDay(date.getDayOfYear() - 1);
+    }
+
+    // Yearly usage per member in one pass over their leaves: working days consumed inside the
+    // year, split by status. Rejected leaves are ignored.
+    public List<Usage> usage(Collection<User> members, Collection<LeaveRecord> leaves, int year) {
+        LocalDate first = LocalDate.ofYearDay(year, 1);
+        LocalDate last = first.withDayOfYear(first.lengthOfYear());
+        Map<String, int[]> totals = new HashMap<>(members.size() * 2);
+        Map<String, String> countries = new HashMap<>(members.size() * 2);
+        for (User member : members) {
+            totals.put(member.getId(), new int[3]);
+            countries.put(member.getId(), member.getCountry());
+        }
+        for (LeaveRecord leave : leaves) {
+            int[] counts = totals.get(leave.getUserId());
+            if (counts == null || leave.getStatus() == LeaveRecord.LeaveStatus.REJECTED) {
+                continue;
+            }
+            LocalDate start = leave.getStartDate().isBefore(first) ? first : leave.getStartDate();
+            LocalDate end = leave.getEndDate().isAfter(last) ? last : leave.getEndDate();
+            int days = workingDays(countries.get(leave.getUserId()), start, end);
+            counts[leave.getStatus() == LeaveRecord.LeaveStatus.PENDING ? 1 : 0] += days;
+            counts[2]++;
+        }
+        return members.stream()
+                .map(member -> {
+                    int[] counts = totals.get(member.getId());
+                    return new Usage(member.getId(), member.getCountry(), year,
+                            calendar(member.getCountry(), year).total(), counts[0], counts[1], counts[2]);
+                })
+                .toList();
+    }
+
+    public record Usage(
+            String userId,
+            String country,
+            int year,
+            int workingDaysInYear,
+            int approvedDays,
+            int pendingDays,
+            int leaveCount
+    ) {}
+
+    private YearCalendar calendar(String country, int year) {
+        long current = holidayStore.generation();
+        if (current != generation) {
+            synchronized (calendars) {
+                if (current != generation) {
+                    calendars.invalidateAll();
+                    generation = current;
+                }
+            }
+        }
+        String code = country == null ? "" : country.trim().toUpperCase(Locale.ROOT);
+        if (code.isEmpty() || !holidayStore.hasCountry(code)) {
+            code = HolidayStore.ALL_COUNTRIES;
+        }
+        String resolved = code;
+        return calendars.get(resolved + ":" + year, key -> YearCalendar.build(year,
+                holidayStore.getHolidays(year, resolved)));
+    }
+
+    private static final class YearCalendar {
+        private final BitSet workingDays;
+        // prefix[i] = working days among the first i days of the year
+        private final int[] prefix;
+
+        private YearCalendar(BitSet workingDays, int length) {
+            this.workingDays = workingDays;
+            this.prefix = new int[length + 1];
+            for (int day = 0; day < length; day++) {
+                prefix[day + 1] = prefix[day] + (workingDays.get(day) ? 1 : 0);
+            }
+        }
+
+        static YearCalendar build(int year, List<PublicHoliday> holidays) {
+            LocalDate first = LocalDate.ofYearDay(year, 1);
+            int length = first.lengthOfYear();
+            BitSet bits = new BitSet(length);
+            // Jan 1 weekday, then walk the year once
+            int dayOfWeek = first.getDayOfWeek().getValue();
+            for (int day = 0; day < length; day++) {
+                if (dayOfWeek < DayOfWeek.SATURDAY.getValue()) {
+                    bits.set(day);
+                }
+                dayOfWeek = dayOfWeek == 7 ? 1 : dayOfWeek + 1;
+            }
+            for (PublicHoliday holiday : holidays) {
+                if (holiday.getDate().getYear() == year) {
+                    bits.set(holiday.getDate().getDayOfYear() - 1, holiday.isWorkday());
+                }
+            }
+            return new YearCalendar(bits, length);
+        }
+
+        int length() {
+            return prefix.length - 1;
+        }
+
+        int total() {
+            return prefix[length()];
+        }
+
+        boolean isWorkingDay(int day) {
+            return workingDays.get(day);
+        }
+
+        int count(int fromDay, int toDay) {
+            return fromDay > toDay ? 0 : prefix[toDay + 1] - prefix[fromDay];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.easytimeoff.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// Pool saturation on top of the per-pool hikaricp.* meters Spring Boot already registers:
+// busy is the share of connections in use, and demand also counts threads waiting for one, so
+// a value above 1 means requests are queueing for the database.
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        HikariDataSource hikari = unwrap();
+        if (hikari == null) {
+            return;
+        }
+        String pool = hikari.getPoolName();
+        Gauge.builder("db.pool.saturation", hikari, ds -> ratio(ds, false))
+                .description("Active connections as a fraction of the maximum pool size")
+                .tag("pool", pool)
+                .tag("kind", "busy")
+                .register(registry);
+        Gauge.builder("db.pool.saturation", hikari, ds -> ratio(ds, true))
+                .description("Active connections plus waiting threads as a fraction of the maximum pool size")
+                .tag("pool", pool)
+                .tag("kind", "demand")
+                .register(registry);
+    }
+
+    private static double ratio(HikariDataSource hikari, boolean includeWaiting) {
+        // The pool MXBean is null until the pool has started.
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        int max = hikari.getMaximumPoolSize();
+        if (pool == null || max <= 0) {
+            return 0;
+        }
+        int demand = pool.getActiveConnections() + (includeWaiting ? pool.getThreadsAwaitingConnection() : 0);
+        return (double) demand / max;
+    }
+
+    private HikariDataSource unwrap() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
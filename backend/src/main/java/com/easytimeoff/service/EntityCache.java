@@ -0,0 +1,196 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import com.easytimeoff.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Size-bounded, TTL-expiring read-through cache for users, teams and pods. Batch reads load all
+// missing ids with one repository call. Entries are detached copies (teams and pods carry their
+// member sets) and are invalidated after commit by EntityCacheListener and explicit write paths;
+// the TTL bounds staleness if a load races with a concurrent write.
+@Service
+public class EntityCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final TeamRepository teamRepository;
+    private final PodRepository podRepository;
+    private final boolean enabled;
+
+    private final Cache<String, User> users;
+    private final Cache<String, Team> teams;
+    private final Cache<String, Pod> pods;
+
+    public EntityCache(
+            UserRepository userRepository,
+            TeamRepository teamRepository,
+            PodRepository podRepository,
+            @Value("${app.entity-cache.enabled:true}") boolean enabled,
+            @Value("${app.entity-cache.max-size:10000}") long maxSize,
+            @Value("${app.entity-cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.teamRepository = teamRepository;
+        this.podRepository = podRepository;
+        this.enabled = enabled;
+        this.users = newCache(maxSize, ttl);
+        this.teams = newCache(maxSize, ttl);
+        this.pods = newCache(maxSize, ttl);
+    }
+
+    private static <V> Cache<String, V> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> getUser(String id) {
+        if (!enabled) {
+            return userRepository.findById(id);
+        }
+        return Optional.ofNullable(users.get(id, key -> userRepository.findById(key).map(EntityCache::copyOf).orElse(null)));
+    }
+
+    // Users for the given ids in request order; unknown ids are skipped.
+    public List<User> getUsers(Collection<String> ids) {
+        if (!enabled) {
+            return userRepository.findAllById(ids);
+        }
+        return getAll(users, ids, missing -> userRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(User::getId, EntityCache::copyOf)));
+    }
+
+    public Optional<Team> getTeam(String id) {
+        if (!enabled) {
+            return teamRepository.findWithMembersById(id);
+        }
+        return Optional.ofNullable(teams.get(id, key -> teamRepository.findWithMembersById(key).map(EntityCache::copyOf).orElse(null)));
+    }
+
+    public List<Team> getTeams(Collection<String> ids) {
+        if (!enabled) {
+            return teamRepository.findWithMembersByIdIn(ids);
+        }
+        return getAll(teams, ids, missing -> teamRepository.findWithMembersByIdIn(missing).stream()
+                .collect(Collectors.toMap(Team::getId, EntityCache::copyOf)));
+    }
+
+    public Optional<Pod> getPod(String id) {
+        if (!enabled) {
+            return podRepository.findWithMembersById(id);
+        }
+        return Optional.ofNullable(pods.get(id, key -> podRepository.findWithMembersById(key).map(EntityCache::copyOf).orElse(null)));
+    }
+
+    public void invalidateUser(String id) {
+        if (id != null) {
+            users.invalidate(id);
+        }
+    }
+
+    public void invalidateTeam(String id) {
+        if (id != null) {
+            teams.invalidate(id);
+        }
+    }
+
+    public void invalidatePod(String id) {
+        if (id != null) {
+            pods.invalidate(id);
+        }
+    }
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("users", users.stats());
+        stats.put("teams", teams.stats());
+        stats.put("pods", pods.stats());
+        return stats;
+    }
+
+    public Map<String, Long> sizes() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        sizes.put("users", users.estimatedSize());
+        sizes.put("teams", teams.estimatedSize());
+        sizes.put("pods", pods.estimatedSize());
+        return sizes;
+    }
+
+    // Publishes hit/miss/eviction/size meters for each cache as cache.* with cache=users|teams|pods.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "users");
+        CaffeineCacheMetrics.monitor(registry, teams, "teams");
+        CaffeineCacheMetrics.monitor(registry, pods, "pods");
+    }
+
+    private static <V> List<V> getAll(
+            Cache<String, V> cache,
+            Collection<String> ids,
+            Function<Set<String>, Map<String, V>> loader
+    ) {
+        Set<String> keys = new LinkedHashSet<>(ids);
+        keys.remove(null);
+        Map<String, V> found = cache.getAll(keys, missing -> loader.apply(new HashSet<>(missing)));
+        return keys.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .employeeID(user.getEmployeeID())
+                .displayName(user.getDisplayName())
+                .email(user.getEmail())
+                .country(user.getCountry())
+                .avatar(user.getAvatar())
+                .teamId(user.getTeamId())
+                .adPrincipalId(user.getAdPrincipalId())
+                .build();
+    }
+
+    private static Team copyOf(Team team) {
+        return Team.builder()
+                .id(team.getId())
+                .name(team.getName())
+                .type(team.getType())
+                .createdBy(team.getCreatedBy())
+                .memberIds(new HashSet<>(team.getMemberIds()))
+                .build();
+    }
+
+    private static Pod copyOf(Pod pod) {
+        return Pod.builder()
+                .id(pod.getId())
+                .name(pod.getName())
+                .memberIds(new HashSet<>(pod.getMemberIds()))
+                .build();
+    }
+}
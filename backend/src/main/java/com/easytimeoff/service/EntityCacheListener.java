@@ -0,0 +1,39 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.domain.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import static com.easytimeoff.util.TransactionHooks.afterCommit;
+
+// JPA entity listener for User, Team and Pod that drops the cached copy after commit.
+@Component
+public class EntityCacheListener {
+
+    private final ObjectProvider<EntityCache> entityCache;
+
+    public EntityCacheListener(ObjectProvider<EntityCache> entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            String id = user.getId();
+            afterCommit(() -> entityCache.getObject().invalidateUser(id));
+        } else if (entity instanceof Team team) {
+            String id = team.getId();
+            afterCommit(() -> entityCache.getObject().invalidateTeam(id));
+        } else if (entity instanceof Pod pod) {
+            String id = pod.getId();
+            afterCommit(() -> entityCache.getObject().invalidatePod(id));
+        }
+    }
+}
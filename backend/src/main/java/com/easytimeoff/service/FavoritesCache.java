@@ -0,0 +1,191 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.FavoriteTeam;
+import com.easytimeoff.repository.FavoriteTeamRepository;
+import com.easytimeoff.util.DatabaseProducts;
+import com.easytimeoff.util.TimeOrderedIds;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Per-user favorites, newest first, cached in memory and updated write-through. A toggle is a
+// single conditional delete-or-insert statement run under the user's lock stripe, after which
+// the cached list is replaced, so double-clicks are serialized and neither reads nor toggles
+// need a follow-up query. On PostgreSQL the statement reports what it did; elsewhere MERGE ...
+// WHEN MATCHED THEN DELETE is used and the outcome follows from the cached state, which is
+// authoritative within this process. Entries are reloaded app.favorites-cache.ttl after they were
+// last written, so another instance's toggles are picked up within that time.
+@Service
+@Slf4j
+public class FavoritesCache implements MeterBinder {
+
+    private static final String POSTGRES_TOGGLE_SQL = "WITH removed AS (" +
+            "DELETE FROM favorite_teams WHERE user_id = ? AND team_id = ? RETURNING id), " +
+            "inserted AS (INSERT INTO favorite_teams (id, user_id, team_id, created_at) " +
+            "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM removed) " +
+            "ON CONFLICT (user_id, team_id) DO NOTHING RETURNING id) " +
+            "SELECT (SELECT count(*) FROM removed) AS removed, (SELECT count(*) FROM inserted) AS inserted";
+    private static final String MERGE_TOGGLE_SQL = "MERGE INTO favorite_teams f " +
+            "USING (SELECT CAST(? AS VARCHAR(255)) AS id, CAST(? AS VARCHAR(255)) AS user_id, " +
+            "CAST(? AS VARCHAR(255)) AS team_id, CAST(? AS BIGINT) AS created_at) s " +
+            "ON (f.user_id = s.user_id AND f.team_id = s.team_id) " +
+            "WHEN MATCHED THEN DELETE " +
+            "WHEN NOT MATCHED THEN INSERT (id, user_id, team_id, created_at) " +
+            "VALUES (s.id, s.user_id, s.team_id, s.created_at)";
+
+    private static final Comparator<FavoriteTeam> NEWEST_FIRST = Comparator
+            .comparingLong(FavoriteTeam::getCreatedAt).reversed()
+            .thenComparing(FavoriteTeam::getId, Comparator.reverseOrder());
+
+    private final FavoriteTeamRepository favoriteTeamRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Cache<String, List<FavoriteTeam>> favorites;
+    private final ReentrantLock[] stripes = new ReentrantLock[64];
+    private boolean postgres;
+
+    public FavoritesCache(
+            FavoriteTeamRepository favoriteTeamRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.favorites-cache.enabled:true}") boolean enabled,
+            @Value("${app.favorites-cache.max-size:10000}") long maxSize,
+            @Value("${app.favorites-cache.ttl:30m}") Duration ttl
+    ) {
+        this.favoriteTeamRepository = favoriteTeamRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.favorites = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public enum Outcome {
+        ADDED, REMOVED, UNCHANGED
+    }
+
+    public record Toggle(Outcome outcome, List<FavoriteTeam> favorites) {}
+
+    @PostConstruct
+    void detectDatabase() {
+        try {
+            postgres = DatabaseProducts.isPostgres(jdbcTemplate.getDataSource());
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database; favorite toggles use MERGE.", e);
+        }
+    }
+
+    // The user's favorites, newest first. The list is immutable.
+    public List<FavoriteTeam> get(String userId) {
+        if (!enabled) {
+            return load(userId);
+        }
+        return favorites.get(userId, this::load);
+    }
+
+    public Toggle toggle(String userId, String teamId) {
+        ReentrantLock lock = stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            List<FavoriteTeam> current = get(userId);
+            boolean present = current.stream().anyMatch(favorite -> favorite.getTeamId().equals(teamId));
+            FavoriteTeam candidate = FavoriteTeam.builder()
+                    .id(TimeOrderedIds.next())
+                    .userId(userId)
+                    .teamId(teamId)
+                    .createdAt(System.currentTimeMillis())
+                    .build();
+
+            Outcome outcome = postgres ? togglePostgres(candidate) : toggleMerge(candidate, present);
+            List<FavoriteTeam> next = switch (outcome) {
+                case ADDED -> prepend(candidate, current);
+                case REMOVED -> current.stream().filter(favorite -> !favorite.getTeamId().equals(teamId)).toList();
+                // Another instance won the race; re-read rather than guess.
+                case UNCHANGED -> load(userId);
+            };
+            if (enabled) {
+                favorites.put(userId, next);
+            }
+            return new Toggle(outcome, next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String userId) {
+        favorites.invalidate(userId);
+    }
+
+    public CacheStats stats() {
+        return favorites.stats();
+    }
+
+    public long size() {
+        return favorites.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, favorites, "favorites");
+    }
+
+    private Outcome togglePostgres(FavoriteTeam candidate) {
+        return jdbcTemplate.queryForObject(POSTGRES_TOGGLE_SQL, (rs, rowNum) -> {
+            if (rs.getLong("removed") > 0) {
+                return Outcome.REMOVED;
+            }
+            return rs.getLong("inserted") > 0 ? Outcome.ADDED : Outcome.UNCHANGED;
+        }, candidate.getUserId(), candidate.getTeamId(),
+                candidate.getId(), candidate.getUserId(), candidate.getTeamId(), candidate.getCreatedAt());
+    }
+
+    private Outcome toggleMerge(FavoriteTeam candidate, boolean present) {
+        jdbcTemplate.update(MERGE_TOGGLE_SQL,
+                candidate.getId(), candidate.getUserId(), candidate.getTeamId(), candidate.getCreatedAt());
+        return present ? Outcome.REMOVED : Outcome.ADDED;
+    }
+
+    private List<FavoriteTeam> load(String userId) {
+        List<FavoriteTeam> loaded = new ArrayList<>(favoriteTeamRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(FavoritesCache::copyOf)
+                .toList());
+        loaded.sort(NEWEST_FIRST);
+        return List.copyOf(loaded);
+    }
+
+    private static List<FavoriteTeam> prepend(FavoriteTeam added, List<FavoriteTeam> current) {
+        List<FavoriteTeam> next = new ArrayList<>(current.size() + 1);
+        next.add(added);
+        next.addAll(current);
+        next.sort(NEWEST_FIRST);
+        return List.copyOf(next);
+    }
+
+    private static FavoriteTeam copyOf(FavoriteTeam favorite) {
+        return FavoriteTeam.builder()
+                .id(favorite.getId())
+                .userId(favorite.getUserId())
+                .teamId(favorite.getTeamId())
+                .createdAt(favorite.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Sync source over a directory of *.ndjson change files, read in file-name order (so names
+// should sort by time, e.g. 2026-10-17T0400-hr.ndjson). Each line is a RawRow plus an optional
+// "op" of upsert (default) or delete. The watermark is "<file>#<line>": files sorting before it
+// are never opened again, and a file that is appended to is picked up from the next line. Only
+// newline-terminated lines are read, so a half-written append is left for the next run; in any
+// file but the newest, an unterminated last line is taken as complete. Lines that cannot be
+// parsed are skipped and reported as errors of the run. Writers should create each file
+// atomically (write elsewhere, then move it in) and end every line, including the last, with \n.
+@Slf4j
+public class FileLeaveSyncSource implements LeaveSyncSource {
+
+    private static final String SUFFIX = ".ndjson";
+
+    private final String name;
+    private final LeaveRecord.DataSource dataSource;
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public FileLeaveSyncSource(String name, LeaveRecord.DataSource dataSource, Path directory, ObjectMapper objectMapper) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public LeaveRecord.DataSource dataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public ChangeBatch fetchChanges(String watermark, int limit) throws IOException {
+        Position from = Position.parse(watermark);
+        if (!Files.isDirectory(directory)) {
+            log.debug("Sync source {}: directory {} does not exist yet.", name, directory);
+            return new ChangeBatch(List.of(), watermark, false);
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> fileName(path).endsWith(SUFFIX) && Files.isRegularFile(path))
+                    .filter(path -> from == null || fileName(path).compareTo(from.file()) >= 0)
+                    .sorted(Comparator.comparing(FileLeaveSyncSource::fileName))
+                    .toList();
+        }
+
+        List<Change> changes = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        Position position = from;
+        for (int i = 0; i < files.size(); i++) {
+            String fileName = fileName(files.get(i));
+            boolean newest = i == files.size() - 1;
+            int skip = from != null && fileName.equals(from.file()) ? from.line() : 0;
+            try (BufferedReader reader = Files.newBufferedReader(files.get(i), StandardCharsets.UTF_8)) {
+                int lineNumber = 0;
+                StringBuilder line = new StringBuilder();
+                while (readLine(reader, line) || (!newest && !line.isEmpty())) {
+                    lineNumber++;
+                    if (lineNumber <= skip) {
+                        line.setLength(0);
+                        continue;
+                    }
+                    if (changes.size() >= limit) {
+                        return new ChangeBatch(changes, position.format(), true, errors);
+                    }
+                    position = new Position(fileName, lineNumber);
+                    if (!line.toString().isBlank()) {
+                        parse(fileName, lineNumber, line.toString(), changes, errors);
+                    }
+                    line.setLength(0);
+                }
+                if (!line.isEmpty()) {
+                    log.debug("Sync source {}: {} line {} is not terminated yet; leaving it for the next run.",
+                            name, fileName, lineNumber + 1);
+                }
+            }
+        }
+        return new ChangeBatch(changes, position == null ? null : position.format(), false, errors);
+    }
+
+    // Reads the next line into line (cleared by the caller) and returns true only when it ended with
+    // \n; at the end of the file, line holds any unterminated tail and false is returned.
+    private static boolean readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == '\n') {
+                int last = line.length() - 1;
+                if (last >= 0 && line.charAt(last) == '\r') {
+                    line.setLength(last);
+                }
+                return true;
+            }
+            line.append((char) c);
+        }
+        return false;
+    }
+
+    private void parse(String fileName, int lineNumber, String line, List<Change> changes, List<String> errors) {
+        FileChange change;
+        try {
+            change = objectMapper.readValue(line, FileChange.class);
+        } catch (JsonProcessingException e) {
+            skip(errors, fileName, lineNumber, "invalid JSON: " + e.getOriginalMessage());
+            return;
+        }
+        String op = change.op() == null ? "upsert" : change.op().trim().toLowerCase(Locale.ROOT);
+        switch (op) {
+            case "delete" -> changes.add(Change.delete(change.externalId(), change.userId()));
+            case "upsert" -> changes.add(Change.upsert(new LeaveImportService.RawRow(change.externalId(), change.userId(),
+                    change.startDate(), change.endDate(), change.status(), change.note())));
+            default -> skip(errors, fileName, lineNumber, "unknown op " + change.op());
+        }
+    }
+
+    private void skip(List<String> errors, String fileName, int lineNumber, String reason) {
+        log.warn("Sync source {}: skipping {} line {}, {}", name, fileName, lineNumber, reason);
+        errors.add(fileName + " line " + lineNumber + ": " + reason);
+    }
+
+    private static String fileName(Path path) {
+        return path.getFileName().toString();
+    }
+
+    private record FileChange(String op, String externalId, String userId, String startDate, String endDate,
+                              String status, String note) {}
+
+    private record Position(String file, int line) {
+
+        static Position parse(String watermark) {
+            if (watermark == null || watermark.isBlank()) {
+                return null;
+            }
+            int separator = watermark.lastIndexOf('#');
+            if (separator < 0) {
+                return new Position(watermark, 0);
+            }
+            return new Position(watermark.substring(0, separator), Integer.parseInt(watermark.substring(separator + 1)));
+        }
+
+        String format() {
+            return file + "#" + line;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Shared typeahead over team and pod names. Names are normalized (accents stripped, lower-cased,
+// punctuation collapsed) and every suffix start is kept as an (owner, offset) pair in one sorted
+// array, so both prefix and infix lookups are a binary search plus a scan of the matching range.
+// Readers use an immutable snapshot. Writes update the entries under a lock, then rebuild the
+// snapshot outside it and publish it unless a newer one is already in place.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GroupTypeaheadIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TeamRepository teamRepository;
+    private final PodRepository podRepository;
+
+    @Value("${app.group-typeahead.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Set<GroupKey> staleKeys = new LinkedHashSet<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private long version;
+    private long publishedVersion;
+    private volatile boolean ready;
+
+    public enum GroupKind {
+        TEAM, POD
+    }
+
+    public record GroupHit(String id, String name, GroupKind kind) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Group typeahead index disabled. Group search uses the repository queries.");
+            return;
+        }
+        long started = System.nanoTime();
+        List<Team> teams = teamRepository.findAll();
+        List<Pod> pods = podRepository.findAll();
+        synchronized (entries) {
+            teams.forEach(team -> putLocked(GroupKind.TEAM, team.getId(), team.getName()));
+            pods.forEach(pod -> putLocked(GroupKind.POD, pod.getId(), pod.getName()));
+            // Writes that raced with the bulk read are re-read so they win over the stale rows.
+            staleKeys.forEach(stale -> reloadLocked(stale.kind(), stale.id()));
+            staleKeys.clear();
+            snapshot = Snapshot.build(List.copyOf(entries.values()));
+            publishedVersion = ++version;
+            ready = true;
+        }
+        log.info("Group typeahead index built for {} teams and {} pods in {} ms.",
+                teams.size(), pods.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<GroupHit> search(String query, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        return snapshot.search(needle, limit);
+    }
+
+    public void put(GroupKind kind, String id, String name) {
+        if (!enabled || id == null || name == null) {
+            return;
+        }
+        List<Entry> current;
+        long changed;
+        synchronized (entries) {
+            markStaleLocked(kind, id);
+            putLocked(kind, id, name);
+            if (!ready) {
+                return;
+            }
+            current = List.copyOf(entries.values());
+            changed = ++version;
+        }
+        publish(Snapshot.build(current), changed);
+    }
+
+    public void remove(GroupKind kind, String id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        List<Entry> current;
+        long changed;
+        synchronized (entries) {
+            markStaleLocked(kind, id);
+            if (entries.remove(key(kind, id)) == null || !ready) {
+                return;
+            }
+            current = List.copyOf(entries.values());
+            changed = ++version;
+        }
+        publish(Snapshot.build(current), changed);
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private void putLocked(GroupKind kind, String id, String name) {
+        entries.put(key(kind, id), new Entry(new GroupHit(id, name, kind), normalize(name)));
+    }
+
+    // Concurrent writers may finish their rebuilds out of order; the one from the latest write wins.
+    private void publish(Snapshot built, long builtVersion) {
+        synchronized (entries) {
+            if (builtVersion > publishedVersion) {
+                snapshot = built;
+                publishedVersion = builtVersion;
+            }
+        }
+    }
+
+    private void markStaleLocked(GroupKind kind, String id) {
+        if (!ready) {
+            staleKeys.add(new GroupKey(kind, id));
+        }
+    }
+
+    private void reloadLocked(GroupKind kind, String id) {
+        entries.remove(key(kind, id));
+        if (kind == GroupKind.TEAM) {
+            teamRepository.findById(id).ifPresent(team -> putLocked(kind, id, team.getName()));
+        } else {
+            podRepository.findById(id).ifPresent(pod -> putLocked(kind, id, pod.getName()));
+        }
+    }
+
+    private static String key(GroupKind kind, String id) {
+        return kind.name() + ":" + id;
+    }
+
+    private record GroupKey(GroupKind kind, String id) {}
+
+    private record Entry(GroupHit hit, String normalized) {}
+
+    private record Ranked(Entry entry, int score) {
+        static final Comparator<Ranked> RANKING = Comparator
+                .comparingInt(Ranked::score).reversed()
+                .thenComparingInt(ranked -> ranked.entry().normalized().length())
+                .thenComparing(ranked -> ranked.entry().normalized())
+                .thenComparing(ranked -> ranked.entry().hit().kind())
+                .thenComparing(ranked -> ranked.entry().hit().id());
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Entry[0], new int[0], new int[0]);
+
+        private final Entry[] entries;
+        // Suffix i is entries[owners[i]].normalized() from offsets[i], in sorted order.
+        private final int[] owners;
+        private final int[] offsets;
+
+        private Snapshot(Entry[] entries, int[] owners, int[] offsets) {
+            this.entries = entries;
+            this.owners = owners;
+            this.offsets = offsets;
+        }
+
+        static Snapshot build(List<Entry> source) {
+            Entry[] entries = source.toArray(Entry[]::new);
+            record Start(int owner, int offset) {}
+            List<Start> starts = new ArrayList<>();
+            for (int owner = 0; owner < entries.length; owner++) {
+                String name = entries[owner].normalized();
+                for (int i = 0; i < name.length(); i++) {
+                    if (name.charAt(i) != ' ') {
+                        starts.add(new Start(owner, i));
+                    }
+                }
+            }
+            starts.sort((x, y) -> compare(entries[x.owner()].normalized(), x.offset(),
+                    entries[y.owner()].normalized(), y.offset()));
+            int[] owners = new int[starts.size()];
+            int[] offsets = new int[starts.size()];
+            for (int i = 0; i < starts.size(); i++) {
+                owners[i] = starts.get(i).owner();
+                offsets[i] = starts.get(i).offset();
+            }
+            return new Snapshot(entries, owners, offsets);
+        }
+
+        List<GroupHit> search(String needle, int limit) {
+            BitSet seen = new BitSet(entries.length);
+            PriorityQueue<Ranked> worstFirst = new PriorityQueue<>(Ranked.RANKING.reversed());
+            for (int i = lowerBound(needle); i < owners.length && suffixStartsWith(i, needle); i++) {
+                int owner = owners[i];
+                if (seen.get(owner)) {
+                    continue;
+                }
+                seen.set(owner);
+                Ranked ranked = new Ranked(entries[owner], score(entries[owner].normalized(), needle));
+                if (worstFirst.size() < limit) {
+                    worstFirst.add(ranked);
+                } else if (Ranked.RANKING.compare(ranked, worstFirst.peek()) < 0) {
+                    worstFirst.poll();
+                    worstFirst.add(ranked);
+                }
+            }
+            List<Ranked> ranked = new ArrayList<>(worstFirst);
+            ranked.sort(Ranked.RANKING);
+            return ranked.stream().map(r -> r.entry().hit()).toList();
+        }
+
+        private boolean suffixStartsWith(int i, String needle) {
+            return entries[owners[i]].normalized().startsWith(needle, offsets[i]);
+        }
+
+        private int lowerBound(String needle) {
+            int lo = 0;
+            int hi = owners.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(entries[owners[mid]].normalized(), offsets[mid], needle, 0) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Same order as a.substring(aFrom).compareTo(b.substring(bFrom)), without the copies.
+        private static int compare(String a, int aFrom, String b, int bFrom) {
+            int aLength = a.length() - aFrom;
+            int bLength = b.length() - bFrom;
+            for (int i = 0, n = Math.min(aLength, bLength); i < n; i++) {
+                int diff = a.charAt(aFrom + i) - b.charAt(bFrom + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return aLength - bLength;
+        }
+
+        private static int score(String name, String needle) {
+            if (name.equals(needle)) {
+                return 100;
+            }
+            if (name.startsWith(needle)) {
+                return 80;
+            }
+            return name.contains(" " + needle) ? 50 : 30;
+        }
+    }
+}
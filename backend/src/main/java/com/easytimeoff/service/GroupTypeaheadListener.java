@@ -0,0 +1,48 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.service.GroupTypeaheadIndex.GroupKind;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import static com.easytimeoff.util.TransactionHooks.afterCommit;
+
+// JPA entity listener for Team and Pod that keeps GroupTypeaheadIndex current after commit.
+@Component
+public class GroupTypeaheadListener {
+
+    private final ObjectProvider<GroupTypeaheadIndex> groupTypeaheadIndex;
+
+    public GroupTypeaheadListener(ObjectProvider<GroupTypeaheadIndex> groupTypeaheadIndex) {
+        this.groupTypeaheadIndex = groupTypeaheadIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Team team) {
+            String id = team.getId();
+            String name = team.getName();
+            afterCommit(() -> groupTypeaheadIndex.getObject().put(GroupKind.TEAM, id, name));
+        } else if (entity instanceof Pod pod) {
+            String id = pod.getId();
+            String name = pod.getName();
+            afterCommit(() -> groupTypeaheadIndex.getObject().put(GroupKind.POD, id, name));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Team team) {
+            String id = team.getId();
+            afterCommit(() -> groupTypeaheadIndex.getObject().remove(GroupKind.TEAM, id));
+        } else if (entity instanceof Pod pod) {
+            String id = pod.getId();
+            afterCommit(() -> groupTypeaheadIndex.getObject().remove(GroupKind.POD, id));
+        }
+    }
+}
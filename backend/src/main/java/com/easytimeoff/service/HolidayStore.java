@@ -0,0 +1,279 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.PublicHoliday;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Public holidays indexed by (year, country). Each load builds an immutable snapshot, including
+// the JSON bytes served by /api/holidays for every (year, country) filter, and publishes it with
+// one volatile write, so readers never lock and never see a half-loaded file. When
+// app.holidays.path points at an external holidays.json, a watcher thread reloads it on change;
+// a file that fails to parse leaves the previous snapshot in place.
+@Service
+@Slf4j
+public class HolidayStore {
+
+    // Holidays under this country code apply to every country.
+    public static final String ALL_COUNTRIES = "ALL";
+
+    private static final byte[] EMPTY_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final String externalPath;
+    private final boolean watch;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private WatchService watchService;
+
+    public HolidayStore(
+            ObjectMapper objectMapper,
+            @Value("${app.holidays.path:}") String externalPath,
+            @Value("${app.holidays.watch:true}") boolean watch
+    ) {
+        this.objectMapper = objectMapper;
+        this.externalPath = externalPath;
+        this.watch = watch;
+    }
+
+    private static class HolidayEntry {
+        public LocalDate date;
+        public String name;
+        public boolean isWorkday;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (watch && !externalPath.isBlank()) {
+            startWatcher(Path.of(externalPath).toAbsolutePath());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    // Re-reads the configured source; returns false (keeping the current snapshot) on failure.
+    public boolean reload() {
+        try (InputStream in = externalPath.isBlank()
+                ? new ClassPathResource("holidays.json").getInputStream()
+                : Files.newInputStream(Path.of(externalPath))) {
+            Map<String, Map<String, List<HolidayEntry>>> data = objectMapper.readValue(
+                    in, new TypeReference<Map<String, Map<String, List<HolidayEntry>>>>() {});
+            Snapshot next = build(data);
+            snapshot = next;
+            log.info("Loaded {} public holidays for years {} from {}.", next.size(), next.years.keySet(),
+                    externalPath.isBlank() ? "classpath:holidays.json" : externalPath);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load holidays; keeping the previous {} entries.", snapshot.size(), e);
+            return false;
+        }
+    }
+
+    // Incremented on every successful load so derived data (e.g. business-day calendars) can tell
+    // when to rebuild.
+    public long generation() {
+        return snapshot.generation;
+    }
+
+    // Whether any loaded year lists holidays under this country code.
+    public boolean hasCountry(String country) {
+        return snapshot.countries.contains(normalizeCountry(country));
+    }
+
+    public List<PublicHoliday> getHolidays(int year) {
+        Year entry = snapshot.years.get(year);
+        return entry == null ? List.of() : entry.all;
+    }
+
+    // Holidays for one country, including those listed under ALL.
+    public List<PublicHoliday> getHolidays(int year, String country) {
+        Year entry = snapshot.years.get(year);
+        if (entry == null) {
+            return List.of();
+        }
+        return entry.byCountry.getOrDefault(normalizeCountry(country), entry.global);
+    }
+
+    public byte[] getHolidaysJson(int year, String country) {
+        Year entry = snapshot.years.get(year);
+        if (entry == null) {
+            return EMPTY_JSON;
+        }
+        if (country == null || country.isBlank()) {
+            return entry.allJson;
+        }
+        return entry.countryJson.getOrDefault(normalizeCountry(country), entry.globalJson);
+    }
+
+    private static String normalizeCountry(String country) {
+        return country == null ? "" : country.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Snapshot build(Map<String, Map<String, List<HolidayEntry>>> data) throws IOException {
+        Map<Integer, Map<String, List<PublicHoliday>>> grouped = new TreeMap<>();
+        if (data != null) {
+            data.forEach((year, countries) -> {
+                if (countries == null) {
+                    return;
+                }
+                countries.forEach((country, holidays) -> {
+                    if (holidays == null) {
+                        return;
+                    }
+                    String code = normalizeCountry(country);
+                    holidays.forEach(holiday -> {
+                        if (holiday == null || holiday.date == null) {
+                            return;
+                        }
+                        // Bucket by the date itself, so a misfiled entry still lands in the right year.
+                        grouped.computeIfAbsent(holiday.date.getYear(), key -> new LinkedHashMap<>())
+                                .computeIfAbsent(code, key -> new ArrayList<>())
+                                .add(PublicHoliday.builder()
+                                        .date(holiday.date)
+                                        .name(holiday.name)
+                                        .country(code)
+                                        .isWorkday(holiday.isWorkday)
+                                        .build());
+                    });
+                });
+            });
+        }
+
+        Map<Integer, Year> years = new HashMap<>();
+        Set<String> countries = new HashSet<>();
+        for (Map.Entry<Integer, Map<String, List<PublicHoliday>>> year : grouped.entrySet()) {
+            years.put(year.getKey(), buildYear(year.getValue()));
+            countries.addAll(year.getValue().keySet());
+        }
+        return new Snapshot(snapshot.generation + 1, Map.copyOf(years), Set.copyOf(countries));
+    }
+
+    private Year buildYear(Map<String, List<PublicHoliday>> byCountryCode) throws IOException {
+        // Keep the file's country order for the unfiltered list, as the endpoint always has.
+        List<PublicHoliday> all = new ArrayList<>();
+        byCountryCode.values().forEach(all::addAll);
+        List<PublicHoliday> global = sorted(byCountryCode.getOrDefault(ALL_COUNTRIES, List.of()));
+
+        Map<String, List<PublicHoliday>> byCountry = new HashMap<>();
+        Map<String, byte[]> countryJson = new HashMap<>();
+        for (Map.Entry<String, List<PublicHoliday>> country : byCountryCode.entrySet()) {
+            List<PublicHoliday> merged = new ArrayList<>(country.getValue());
+            if (!country.getKey().equals(ALL_COUNTRIES)) {
+                merged.addAll(global);
+            }
+            List<PublicHoliday> view = sorted(merged);
+            byCountry.put(country.getKey(), view);
+            countryJson.put(country.getKey(), objectMapper.writeValueAsBytes(view));
+        }
+        return new Year(
+                List.copyOf(all),
+                global,
+                Map.copyOf(byCountry),
+                objectMapper.writeValueAsBytes(all),
+                objectMapper.writeValueAsBytes(global),
+                Map.copyOf(countryJson)
+        );
+    }
+
+    private static List<PublicHoliday> sorted(List<PublicHoliday> holidays) {
+        return holidays.stream()
+                .sorted(Comparator.comparing(PublicHoliday::getDate))
+                .toList();
+    }
+
+    private void startWatcher(Path file) {
+        Path directory = file.getParent();
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("Could not watch {} for holiday changes; reloads need a restart.", directory, e);
+            return;
+        }
+        Thread.ofPlatform().daemon().name("holiday-watcher").start(() -> watchLoop(file));
+        log.info("Watching {} for holiday changes.", file);
+    }
+
+    private void watchLoop(Path file) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path name && name.equals(file.getFileName())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Editors often write in several steps; let the file settle before parsing.
+                    Thread.sleep(200);
+                    drain();
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Holiday watcher stopped.");
+        }
+    }
+
+    private void drain() {
+        WatchKey pending;
+        while ((pending = watchService.poll()) != null) {
+            pending.pollEvents();
+            pending.reset();
+        }
+    }
+
+    private record Year(
+            List<PublicHoliday> all,
+            List<PublicHoliday> global,
+            Map<String, List<PublicHoliday>> byCountry,
+            byte[] allJson,
+            byte[] globalJson,
+            Map<String, byte[]> countryJson
+    ) {}
+
+    private record Snapshot(long generation, Map<Integer, Year> years, Set<String> countries) {
+        static final Snapshot EMPTY = new Snapshot(0, Map.of(), Set.of());
+
+        int size() {
+            return years.values().stream().mapToInt(year -> year.all().size()).sum();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.repository.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+// In-memory per-user interval index over leaves, used to answer team/pod calendar
+// range queries without hitting the database. Falls back to the repository while
+// the index is cold (before startup load completes) or when disabled.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveCalendarIndex {
+
+    private final LeaveRepository leaveRepository;
+
+    @Value("${app.leave-index.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, UserIntervals> intervalsByUser = new ConcurrentHashMap<>();
+    private final Set<String> staleUsers = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Leave calendar index disabled. Serving calendar queries from the repository.");
+            return;
+        }
+        long started = System.nanoTime();
+        Map<String, List<LeaveRecord>> leavesByUser = leaveRepository.findAll().stream()
+                .collect(Collectors.groupingBy(LeaveRecord::getUserId));
+        leavesByUser.forEach((userId, leaves) -> intervalsByUser.put(userId, UserIntervals.of(leaves)));
+
+        // Writes that raced with the bulk load were parked as stale; re-read those users
+        // before opening the index to readers.
+        synchronized (loadLock) {
+            staleUsers.forEach(this::reloadUser);
+            staleUsers.clear();
+            ready = true;
+        }
+        log.info("Leave calendar index loaded {} users in {} ms.",
+                intervalsByUser.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<LeaveRecord> findLeaves(Collection<String> userIds, LocalDate from, LocalDate to) {
+        if (!ready) {
+            return leaveRepository.findByUserIdInAndDateRange(List.copyOf(userIds), from, to, Pageable.unpaged())
+                    .getContent();
+        }
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        List<LeaveRecord> result = new ArrayList<>();
+        for (String userId : userIds) {
+            UserIntervals intervals = intervalsByUser.get(userId);
+            if (intervals != null) {
+                intervals.collect(fromDay, toDay, result);
+            }
+        }
+        return result;
+    }
+
+    public void upsert(LeaveRecord leave) {
+        if (leave == null || leave.getId() == null) {
+            return;
+        }
+        LeaveRecord snapshot = copyOf(leave);
+        mutate(leave.getUserId(), intervals -> intervals.with(snapshot));
+    }
+
+    // Batch upsert: each user's intervals are rebuilt once however many of their leaves change.
+    public void upsertAll(Collection<LeaveRecord> leaves) {
+        Map<String, List<LeaveRecord>> byUser = leaves.stream()
+                .filter(leave -> leave != null && leave.getId() != null && leave.getUserId() != null)
+                .map(LeaveCalendarIndex::copyOf)
+                .collect(Collectors.groupingBy(LeaveRecord::getUserId));
+        byUser.forEach((userId, snapshots) -> mutate(userId, intervals -> intervals.withAll(snapshots)));
+    }
+
+    public void remove(LeaveRecord leave) {
+        if (leave == null || leave.getId() == null) {
+            return;
+        }
+        mutate(leave.getUserId(), intervals -> intervals.without(leave.getId()));
+    }
+
+    private void mutate(String userId, UnaryOperator<UserIntervals> change) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (!ready) {
+            synchronized (loadLock) {
+                if (!ready) {
+                    staleUsers.add(userId);
+                    return;
+                }
+            }
+        }
+        intervalsByUser.compute(userId, (id, current) -> {
+            UserIntervals next = change.apply(current == null ? UserIntervals.EMPTY : current);
+            return next.isEmpty() ? null : next;
+        });
+    }
+
+    private void reloadUser(String userId) {
+        List<LeaveRecord> leaves = leaveRepository.findByUserId(userId);
+        if (leaves.isEmpty()) {
+            intervalsByUser.remove(userId);
+        } else {
+            intervalsByUser.put(userId, UserIntervals.of(leaves));
+        }
+    }
+
+    // Detached copy so later changes to a managed entity never leak into the index.
+    private static LeaveRecord copyOf(LeaveRecord leave) {
+        return LeaveRecord.builder()
+                .id(leave.getId())
+                .userId(leave.getUserId())
+                .startDate(leave.getStartDate())
+                .endDate(leave.getEndDate())
+                .source(leave.getSource())
+                .status(leave.getStatus())
+                .note(leave.getNote())
+                .externalId(leave.getExternalId())
+                .build();
+    }
+
+    // Immutable, start-sorted intervals for one user. maxEnds[i] is the largest end day in
+    // [0..i], which lets a query skip the prefix that ends before the window.
+    static final class UserIntervals {
+        static final UserIntervals EMPTY = new UserIntervals(new LeaveRecord[0]);
+
+        private static final Comparator<LeaveRecord> ORDER = Comparator
+                .comparing(LeaveRecord::getStartDate)
+                .thenComparing(LeaveRecord::getId);
+
+        private final LeaveRecord[] leaves;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+
+        private UserIntervals(LeaveRecord[] sortedLeaves) {
+            this.leaves = sortedLeaves;
+            this.starts = new int[sortedLeaves.length];
+            this.ends = new int[sortedLeaves.length];
+            this.maxEnds = new int[sortedLeaves.length];
+            int maxEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < sortedLeaves.length; i++) {
+                starts[i] = (int) sortedLeaves[i].getStartDate().toEpochDay();
+                ends[i] = (int) sortedLeaves[i].getEndDate().toEpochDay();
+                maxEnd = Math.max(maxEnd, ends[i]);
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        static UserIntervals of(Collection<LeaveRecord> leaves) {
+            LeaveRecord[] sorted = leaves.stream()
+                    .map(LeaveCalendarIndex::copyOf)
+                    .sorted(ORDER)
+                    .toArray(LeaveRecord[]::new);
+            return new UserIntervals(sorted);
+        }
+
+        boolean isEmpty() {
+            return leaves.length == 0;
+        }
+
+        UserIntervals with(LeaveRecord leave) {
+            return withAll(List.of(leave));
+        }
+
+        UserIntervals withAll(List<LeaveRecord> changed) {
+            Set<String> ids = changed.stream().map(LeaveRecord::getId).collect(Collectors.toSet());
+            List<LeaveRecord> next = new ArrayList<>(leaves.length + changed.size());
+            for (LeaveRecord existing : leaves) {
+                if (!ids.contains(existing.getId())) {
+                    next.add(existing);
+                }
+            }
+            next.addAll(changed);
+            next.sort(ORDER);
+            return new UserIntervals(next.toArray(LeaveRecord[]::new));
+        }
+
+        UserIntervals without(String leaveId) {
+            LeaveRecord[] next = Arrays.stream(leaves)
+                    .filter(existing -> !existing.getId().equals(leaveId))
+                    .toArray(LeaveRecord[]::new);
+            return next.length == leaves.length ? this : new UserIntervals(next);
+        }
+
+        void collect(int fromDay, int toDay, List<LeaveRecord> out) {
+            int hi = firstIndexAbove(starts, toDay);
+            int lo = firstIndexAtLeast(maxEnds, fromDay);
+            for (int i = lo; i < hi; i++) {
+                if (ends[i] >= fromDay) {
+                    out.add(leaves[i]);
+                }
+            }
+        }
+
+        private static int firstIndexAbove(int[] sorted, int value) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int firstIndexAtLeast(int[] sorted, int value) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.util.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// In-process fan-out of committed leave changes to subscribers (the SSE endpoint), keyed by the
+// user whose leave changed. Publishing only appends to each interested subscriber's bounded
+// queue; a subscriber with queued events gets one short-lived virtual thread that drains it, so
+// thousands of idle subscribers hold no thread at all and a stalled connection blocks only its
+// own drain. When a queue is full the subscriber is dropped rather than buffering without bound;
+// its drain closes the sink once any send in progress returns, and clients reconnect and refetch. One scheduler thread sends heartbeats so dead connections are
+// noticed. Events are per process: other instances do not see each other's writes.
+@Service
+@Slf4j
+public class LeaveEventBus implements MeterBinder {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record LeaveEvent(long sequence, Type type, LeaveRecord leave) {}
+
+    // Where a subscription's events go. Calls for one subscription never overlap.
+    public interface Sink {
+        void send(LeaveEvent event) throws Exception;
+
+        void heartbeat() throws Exception;
+
+        // The subscription has ended; slow is true when it was dropped for a full buffer.
+        void close(boolean slow);
+    }
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Map<String, Set<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ExecutorService drains = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("leave-events-", 0).factory());
+    private final ScheduledExecutorService heartbeats;
+
+    public LeaveEventBus(
+            @Value("${app.leave-events.buffer-size:256}") int bufferSize,
+            @Value("${app.leave-events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.leave-events.heartbeat:30s}") Duration heartbeat
+    ) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leave-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, heartbeat.toMillis());
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Why a subscription ended. Only an unsubscribe (the connection is already gone) skips Sink.close.
+    private enum Ending {
+        UNSUBSCRIBED, SLOW, FAILED, SHUTDOWN
+    }
+
+    public final class Subscription {
+        private final Set<String> userIds;
+        private final Sink sink;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        // Held by the one drain allowed to touch the sink; it also runs Sink.close.
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicReference<Ending> ending = new AtomicReference<>();
+
+        private Subscription(Set<String> userIds, Sink sink) {
+            this.userIds = userIds;
+            this.sink = sink;
+        }
+
+        public Set<String> userIds() {
+            return userIds;
+        }
+
+        public boolean isClosed() {
+            return ending.get() != null;
+        }
+
+        private void offer(Object message) {
+            if (isClosed()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                log.debug("Dropping leave event subscriber for {} users: buffer of {} is full.", userIds.size(), bufferSize);
+                end(Ending.SLOW);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                drains.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Ending reason = ending.get();
+                if (reason != null) {
+                    // Keep the scheduled flag so nothing else reaches the sink after it is closed.
+                    if (reason != Ending.UNSUBSCRIBED) {
+                        sink.close(reason == Ending.SLOW);
+                    }
+                    return;
+                }
+                Object message = queue.poll();
+                if (message == null) {
+                    scheduled.set(false);
+                    // An offer or end may have landed between poll and reset; take it unless another drain has.
+                    if ((queue.isEmpty() && !isClosed()) || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    if (message == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send((LeaveEvent) message);
+                    }
+                } catch (Exception e) {
+                    log.debug("Leave event subscriber failed; closing it.", e);
+                    end(Ending.FAILED);
+                }
+            }
+        }
+
+        // Stops new offers at once; the sink is closed by the drain, after any send in progress.
+        private void end(Ending reason) {
+            if (!ending.compareAndSet(null, reason)) {
+                return;
+            }
+            if (reason == Ending.SLOW) {
+                dropped.incrementAndGet();
+            }
+            remove(this);
+            queue.clear();
+            if (reason != Ending.UNSUBSCRIBED) {
+                schedule();
+            }
+        }
+    }
+
+    // Empty when max-subscribers is reached.
+    public Optional<Subscription> subscribe(Collection<String> userIds, Sink sink) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        Subscription subscription = new Subscription(Set.copyOf(userIds), sink);
+        subscriptions.add(subscription);
+        subscription.userIds.forEach(userId -> byUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscription));
+        return Optional.of(subscription);
+    }
+
+    // Ends the subscription without notifying the sink (the connection is already gone).
+    public void unsubscribe(Subscription subscription) {
+        subscription.end(Ending.UNSUBSCRIBED);
+    }
+
+    public void created(LeaveRecord leave) {
+        publish(Type.CREATED, List.of(leave));
+    }
+
+    public void updated(LeaveRecord leave) {
+        publish(Type.UPDATED, List.of(leave));
+    }
+
+    public void deleted(LeaveRecord leave) {
+        publish(Type.DELETED, List.of(leave));
+    }
+
+    // Delivered once the surrounding transaction commits, or right away when there is none.
+    public void publish(Type type, Collection<LeaveRecord> leaves) {
+        if (leaves.isEmpty() || subscriptions.isEmpty()) {
+            return;
+        }
+        List<LeaveRecord> snapshots = leaves.stream().map(LeaveEventBus::copyOf).toList();
+        TransactionHooks.afterCommit(() -> snapshots.forEach(leave -> {
+            Set<Subscription> interested = byUser.get(leave.getUserId());
+            if (interested == null || interested.isEmpty()) {
+                return;
+            }
+            LeaveEvent event = new LeaveEvent(sequence.incrementAndGet(), type, leave);
+            interested.forEach(subscription -> subscription.offer(event));
+        }));
+    }
+
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("leave.events.subscribers", this, LeaveEventBus::subscribers)
+                .description("Open leave event subscriptions")
+                .register(registry);
+        FunctionCounter.builder("leave.events.dropped", this, LeaveEventBus::dropped)
+                .description("Subscribers dropped because their buffer was full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        heartbeats.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.end(Ending.SHUTDOWN));
+        // Let the drains close their sinks, but do not wait on stalled connections.
+        drains.shutdown();
+        if (!drains.awaitTermination(1, TimeUnit.SECONDS)) {
+            drains.shutdownNow();
+        }
+    }
+
+    private void heartbeat() {
+        subscriptions.forEach(subscription -> subscription.offer(HEARTBEAT));
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.userIds.forEach(userId -> byUser.computeIfPresent(userId, (key, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        }));
+    }
+
+    private static LeaveRecord copyOf(LeaveRecord leave) {
+        return LeaveRecord.builder()
+                .id(leave.getId())
+                .userId(leave.getUserId())
+                .startDate(leave.getStartDate())
+                .endDate(leave.getEndDate())
+                .source(leave.getSource())
+                .status(leave.getStatus())
+                .note(leave.getNote())
+                .externalId(leave.getExternalId())
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes leaves matching a filter to an output stream as NDJSON or CSV, reading them through a
+// forward-only, read-only cursor (fetch size app.leave-export.fetch-size) and detaching each row
+// once written, so memory stays flat however many rows match. Rows come in id order, which
+// follows insertion order for time-ordered ids and needs no sort on the primary-key index.
+// Both formats import back through POST /api/leaves/import: the CSV header uses its column
+// names, notes with line breaks stay inside quoted fields, and every row carries its id and
+// source, which the import keys on and keeps.
+@Service
+public class LeaveExportService {
+
+    private static final String CSV_HEADER = "id,userId,startDate,endDate,source,status,note,externalId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public LeaveExportService(
+            ObjectMapper objectMapper,
+            @Value("${app.leave-export.fetch-size:1000}") int fetchSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    // Leaves overlapping [from, to] (either bound optional), optionally narrowed by status and source.
+    public record Filter(LocalDate from, LocalDate to, LeaveRecord.LeaveStatus status, LeaveRecord.DataSource source) {}
+
+    // Returns the number of rows written. The output stream is flushed but not closed.
+    @Transactional(readOnly = true)
+    public long export(Filter filter, LeaveImportService.Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        try (Stream<LeaveRecord> leaves = query(filter).getResultStream()) {
+            Iterator<LeaveRecord> iterator = leaves.iterator();
+            if (format == LeaveImportService.Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    LeaveRecord leave = iterator.next();
+                    writeCsv(writer, leave);
+                    entityManager.detach(leave);
+                    rows++;
+                }
+            } else {
+                SequenceWriter json = objectMapper.writer()
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(writer);
+                while (iterator.hasNext()) {
+                    LeaveRecord leave = iterator.next();
+                    json.write(leave);
+                    entityManager.detach(leave);
+                    rows++;
+                }
+                json.flush();
+                if (rows > 0) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private TypedQuery<LeaveRecord> query(Filter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT l FROM LeaveRecord l WHERE 1 = 1");
+        if (filter.from() != null) {
+            jpql.append(" AND l.endDate >= :from");
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND l.startDate <= :to");
+        }
+        if (filter.status() != null) {
+            jpql.append(" AND l.status = :status");
+        }
+        if (filter.source() != null) {
+            jpql.append(" AND l.source = :source");
+        }
+        jpql.append(" ORDER BY l.id");
+
+        TypedQuery<LeaveRecord> query = entityManager.createQuery(jpql.toString(), LeaveRecord.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        if (filter.from() != null) {
+            query.setParameter("from", filter.from());
+        }
+        if (filter.to() != null) {
+            query.setParameter("to", filter.to());
+        }
+        if (filter.status() != null) {
+            query.setParameter("status", filter.status());
+        }
+        if (filter.source() != null) {
+            query.setParameter("source", filter.source());
+        }
+        return query;
+    }
+
+    private static void writeCsv(Writer writer, LeaveRecord leave) throws IOException {
+        writer.write(csv(leave.getId()));
+        writer.write(',');
+        writer.write(csv(leave.getUserId()));
+        writer.write(',');
+        writer.write(csv(leave.getStartDate() == null ? null : leave.getStartDate().toString()));
+        writer.write(',');
+        writer.write(csv(leave.getEndDate() == null ? null : leave.getEndDate().toString()));
+        writer.write(',');
+        writer.write(csv(leave.getSource() == null ? null : leave.getSource().name()));
+        writer.write(',');
+        writer.write(csv(leave.getStatus() == null ? null : leave.getStatus().name()));
+        writer.write(',');
+        writer.write(csv(leave.getNote()));
+        writer.write(',');
+        writer.write(csv(leave.getExternalId()));
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote fields containing a comma, quote or line break, doubling inner quotes.
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
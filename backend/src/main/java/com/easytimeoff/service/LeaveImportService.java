@@ -0,0 +1,681 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.util.TimeOrderedIds;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams an NDJSON or CSV leave feed and upserts it on (source, externalId). The body is read
+// row by row (a quoted CSV field may span lines, up to MAX_RECORD_LENGTH characters per record) and
+// written in JDBC batches, one bounded transaction per batch, so memory stays flat however large
+// the feed is. Rows go through the same per-user overlap check as the REST
+// writes; rows that fail validation, reference unknown users or overlap are reported (by line)
+// instead of aborting the import. Re-running the same feed updates rows in place. Rows that carry
+// an id (GET /api/leaves/export output) are keyed on that id instead and keep their own source and
+// externalId, so an export imports back as the same rows, whether or not the originals still exist.
+@Service
+@Slf4j
+public class LeaveImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NOTE_LENGTH = 255;
+    // A CSV record spanning more than this is taken to be a stray quote rather than a long field.
+    static final int MAX_RECORD_LENGTH = 8 * 1024;
+
+    private static final String INSERT_SQL = "INSERT INTO leaves " +
+            "(id, user_id, start_date, end_date, source, status, note, external_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE leaves " +
+            "SET start_date = ?, end_date = ?, source = ?, status = ?, note = ?, external_id = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM leaves WHERE id = ?";
+    private static final String EXISTING_SQL = "SELECT id, user_id, source, external_id, start_date, end_date, status, note " +
+            "FROM leaves WHERE external_id IN (:keys) AND source = :source";
+    private static final String EXISTING_BY_ID_SQL = "SELECT id, user_id, source, external_id, start_date, end_date, status, note " +
+            "FROM leaves WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityCache entityCache;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final LeaveOverlapGuard leaveOverlapGuard;
+    private final ResourceVersions resourceVersions;
+    private final LeaveEventBus leaveEventBus;
+    private final int batchSize;
+
+    public LeaveImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            EntityCache entityCache,
+            LeaveCalendarIndex leaveCalendarIndex,
+            LeaveOverlapGuard leaveOverlapGuard,
+            ResourceVersions resourceVersions,
+            LeaveEventBus leaveEventBus,
+            @Value("${app.leave-import.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.entityCache = entityCache;
+        this.leaveCalendarIndex = leaveCalendarIndex;
+        this.leaveOverlapGuard = leaveOverlapGuard;
+        this.resourceVersions = resourceVersions;
+        this.leaveEventBus = leaveEventBus;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        // Explicit format parameter first, then the request content type; NDJSON by default.
+        public static Format resolve(String format, String contentType) {
+            if (format != null && !format.isBlank()) {
+                return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                    case "csv" -> CSV;
+                    case "ndjson", "jsonl" -> NDJSON;
+                    default -> null;
+                };
+            }
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv") ? CSV : NDJSON;
+        }
+    }
+
+    public record ImportReport(
+            int rows,
+            int inserted,
+            int updated,
+            int unchanged,
+            int deleted,
+            int failed,
+            long elapsedMs,
+            List<RowError> errors,
+            boolean errorsTruncated
+    ) {}
+
+    public record RowError(int line, String externalId, String message) {}
+
+    // Raw field values as they appear in the feed. id and source are only set by exports.
+    public record RawRow(
+            String externalId,
+            String userId,
+            String startDate,
+            String endDate,
+            String status,
+            String note,
+            String id,
+            String source
+    ) {
+        public RawRow(String externalId, String userId, String startDate, String endDate, String status, String note) {
+            this(externalId, userId, startDate, endDate, status, note, null, null);
+        }
+    }
+
+    // A row with an id is keyed on it; otherwise on externalId, within the import's source.
+    private record Row(
+            int line,
+            String id,
+            String externalId,
+            LeaveRecord.DataSource source,
+            String userId,
+            LocalDate startDate,
+            LocalDate endDate,
+            LeaveRecord.LeaveStatus status,
+            String note
+    ) {
+        Object key() {
+            return id != null ? new IdKey(id) : externalId;
+        }
+
+        // What row errors report: the externalId, or the id when there is none.
+        String label() {
+            return externalId != null ? externalId : id;
+        }
+    }
+
+    private record IdKey(String id) {}
+
+    private record Existing(
+            String id,
+            String userId,
+            String source,
+            String externalId,
+            LocalDate startDate,
+            LocalDate endDate,
+            String status,
+            String note
+    ) {
+
+        boolean matches(LeaveRecord leave) {
+            return startDate.equals(leave.getStartDate())
+                    && endDate.equals(leave.getEndDate())
+                    && source.equals(leave.getSource().name())
+                    && status.equals(leave.getStatus().name())
+                    && Objects.equals(externalId, leave.getExternalId())
+                    && Objects.equals(note, leave.getNote());
+        }
+    }
+
+    private interface LineParser {
+        RawRow parse(String line) throws RowException;
+    }
+
+    private static final class RowException extends Exception {
+        RowException(String message) {
+            super(message);
+        }
+    }
+
+    // Throws IllegalArgumentException when the feed as a whole is unusable (bad CSV header).
+    public ImportReport importLeaves(Reader body, Format format, LeaveRecord.DataSource source) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        BufferedReader reader = body instanceof BufferedReader buffered ? buffered : new BufferedReader(body);
+
+        int lineNumber = 0;
+        LineParser parser;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            parser = csvParser(header);
+        } else {
+            parser = this::parseJson;
+        }
+
+        List<Row> pending = new ArrayList<>(batchSize);
+        // Lines read ahead for a CSV record that turned out too long, to be read again as rows.
+        Deque<String> readAgain = new ArrayDeque<>();
+        String line;
+        while ((line = readAgain.isEmpty() ? reader.readLine() : readAgain.poll()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            int rowLine = lineNumber;
+            if (format == Format.CSV) {
+                // An odd number of quotes leaves a quoted field open: the record continues on the next line.
+                List<String> continued = new ArrayList<>();
+                int length = line.length();
+                int quotes = countQuotes(line);
+                String next;
+                while (quotes % 2 == 1 && length <= MAX_RECORD_LENGTH
+                        && (next = readAgain.isEmpty() ? reader.readLine() : readAgain.poll()) != null) {
+                    continued.add(next);
+                    length += next.length() + 1;
+                    quotes += countQuotes(next);
+                }
+                if (length > MAX_RECORD_LENGTH) {
+                    // Fail this row only; the lines after it are read again as rows of their own.
+                    progress.rows++;
+                    progress.fail(rowLine, null, "quoted field is not closed within " + MAX_RECORD_LENGTH + " characters");
+                    for (int i = continued.size() - 1; i >= 0; i--) {
+                        readAgain.push(continued.get(i));
+                    }
+                    continue;
+                }
+                lineNumber += continued.size();
+                if (!continued.isEmpty()) {
+                    line = line + '\n' + String.join("\n", continued);
+                }
+            }
+            progress.rows++;
+            RawRow raw = null;
+            try {
+                raw = parser.parse(line);
+                pending.add(toRow(rowLine, raw));
+            } catch (RowException e) {
+                progress.fail(rowLine, raw == null ? null : label(raw), e.getMessage());
+            }
+            if (pending.size() >= batchSize) {
+                flush(pending, Set.of(), source, progress);
+                pending.clear();
+            }
+        }
+        flush(pending, Set.of(), source, progress);
+
+        ImportReport report = progress.report(started);
+        log.info("Imported {} leave rows from {} ({} inserted, {} updated, {} unchanged, {} failed) in {} ms.",
+                report.rows(), source, report.inserted(), report.updated(), report.unchanged(), report.failed(), report.elapsedMs());
+        return report;
+    }
+
+    // One page of an incremental sync: upserts plus deletes, both keyed on (source, externalId),
+    // written as a single batch. Deletes go first, so a leave that moved to a new key within the
+    // page does not conflict with its own old row. Row errors use the 1-based position in upserts
+    // as the line.
+    public ImportReport applyChanges(LeaveRecord.DataSource source, List<RawRow> upserts, Collection<String> deleteKeys) {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<Row> rows = new ArrayList<>(upserts.size());
+        for (int i = 0; i < upserts.size(); i++) {
+            progress.rows++;
+            RawRow raw = upserts.get(i);
+            try {
+                rows.add(toRow(i + 1, raw));
+            } catch (RowException e) {
+                progress.fail(i + 1, label(raw), e.getMessage());
+            }
+        }
+        flush(rows, deleteKeys, source, progress);
+        return progress.report(started);
+    }
+
+    private void flush(List<Row> batch, Collection<String> deleteKeys, LeaveRecord.DataSource source, Progress progress) {
+        if (batch.isEmpty() && deleteKeys.isEmpty()) {
+            return;
+        }
+        // The same key twice in one batch: the later row wins, as it would across batches, and the
+        // earlier one is counted in rows only.
+        Map<Object, Row> byKey = new LinkedHashMap<>();
+        batch.forEach(row -> byKey.put(row.key(), row));
+        Set<String> deletes = deleteKeys.stream()
+                .filter(key -> key != null && !byKey.containsKey(key))
+                .collect(Collectors.toSet());
+
+        Set<String> userIds = byKey.values().stream().map(Row::userId).collect(Collectors.toSet());
+        Set<String> knownUsers = entityCache.getUsers(userIds).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        List<Row> rows = new ArrayList<>(byKey.size());
+        for (Row row : byKey.values()) {
+            if (knownUsers.contains(row.userId())) {
+                rows.add(row);
+            } else {
+                progress.fail(row, "unknown userId " + row.userId());
+            }
+        }
+        if (rows.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+
+        // Deletes cannot create an overlap, so only the upserted users are locked.
+        Set<String> lockedUsers = rows.stream().map(Row::userId).collect(Collectors.toSet());
+        Set<String> changedUsers = leaveOverlapGuard.withUsersLock(lockedUsers,
+                () -> writeBatch(rows, deletes, source, progress));
+        resourceVersions.leavesChanged(changedUsers);
+    }
+
+    // Runs under the stripes of every upserted user; returns the users whose leaves changed.
+    private Set<String> writeBatch(List<Row> rows, Set<String> deleteKeys, LeaveRecord.DataSource source, Progress progress) {
+        Set<String> keys = new HashSet<>(deleteKeys);
+        Set<String> ids = new HashSet<>();
+        rows.forEach(row -> {
+            if (row.id() != null) {
+                ids.add(row.id());
+            } else {
+                keys.add(row.externalId());
+            }
+        });
+        Map<String, Existing> existing = findExisting(keys, source);
+        Map<String, Existing> existingById = findExistingById(ids);
+        List<LeaveRecord> deletes = new ArrayList<>();
+        for (String key : deleteKeys) {
+            Existing current = existing.get(key);
+            if (current != null) {
+                deletes.add(LeaveRecord.builder().id(current.id()).userId(current.userId()).externalId(key).build());
+            }
+        }
+        Set<String> deletedIds = deletes.stream().map(LeaveRecord::getId).collect(Collectors.toSet());
+
+        List<LeaveRecord> inserts = new ArrayList<>();
+        List<LeaveRecord> updates = new ArrayList<>();
+        Map<String, List<LeaveRecord>> acceptedByUser = new HashMap<>();
+        Map<String, Row> rowById = new HashMap<>();
+        for (Row row : rows) {
+            Existing current = row.id() != null ? existingById.get(row.id()) : existing.get(row.externalId());
+            if (current != null && !current.userId().equals(row.userId())) {
+                progress.fail(row, (row.id() != null ? "id" : "externalId") + " already belongs to user " + current.userId());
+                continue;
+            }
+            String id = row.id() != null ? row.id() : current == null ? TimeOrderedIds.next() : current.id();
+            String conflict = findConflict(row, id, deletedIds, acceptedByUser.getOrDefault(row.userId(), List.of()));
+            if (conflict != null) {
+                progress.fail(row, conflict);
+                continue;
+            }
+            LeaveRecord leave = LeaveRecord.builder()
+                    .id(id)
+                    .userId(row.userId())
+                    .startDate(row.startDate())
+                    .endDate(row.endDate())
+                    .source(row.source() != null ? row.source() : source)
+                    .status(row.status())
+                    .note(row.note())
+                    .externalId(row.externalId())
+                    .build();
+            // Identical rows (the common case when a feed is re-sent) are not rewritten.
+            if (current == null) {
+                inserts.add(leave);
+            } else if (current.matches(leave)) {
+                progress.unchanged++;
+            } else {
+                updates.add(leave);
+            }
+            acceptedByUser.computeIfAbsent(row.userId(), key -> new ArrayList<>()).add(leave);
+            rowById.put(id, row);
+        }
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return Set.of();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, deletes.stream()
+                            .map(leave -> new Object[]{leave.getId()})
+                            .toList());
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts.stream()
+                            .map(leave -> new Object[]{
+                                    leave.getId(), leave.getUserId(), leave.getStartDate(), leave.getEndDate(),
+                                    leave.getSource().name(), leave.getStatus().name(), leave.getNote(), leave.getExternalId()
+                            })
+                            .toList());
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates.stream()
+                            .map(leave -> new Object[]{
+                                    leave.getStartDate(), leave.getEndDate(), leave.getSource().name(), leave.getStatus().name(),
+                                    leave.getNote(), leave.getExternalId(), leave.getId()
+                            })
+                            .toList());
+                }
+            });
+        } catch (DataAccessException e) {
+            String message = "batch rejected by database: " + e.getMostSpecificCause().getMessage();
+            log.warn("Leave import batch of {} rows failed.", inserts.size() + updates.size() + deletes.size(), e);
+            inserts.forEach(leave -> progress.fail(rowById.get(leave.getId()), message));
+            updates.forEach(leave -> progress.fail(rowById.get(leave.getId()), message));
+            deletes.forEach(leave -> progress.fail(0, leave.getExternalId(), message));
+            return Set.of();
+        }
+
+        deletes.forEach(leaveCalendarIndex::remove);
+        leaveCalendarIndex.upsertAll(inserts);
+        leaveCalendarIndex.upsertAll(updates);
+        leaveEventBus.publish(LeaveEventBus.Type.DELETED, deletes);
+        leaveEventBus.publish(LeaveEventBus.Type.CREATED, inserts);
+        leaveEventBus.publish(LeaveEventBus.Type.UPDATED, updates);
+        progress.inserted += inserts.size();
+        progress.updated += updates.size();
+        progress.deleted += deletes.size();
+        Set<String> changedUsers = new HashSet<>();
+        deletes.forEach(leave -> changedUsers.add(leave.getUserId()));
+        inserts.forEach(leave -> changedUsers.add(leave.getUserId()));
+        updates.forEach(leave -> changedUsers.add(leave.getUserId()));
+        return changedUsers;
+    }
+
+    private Map<String, Existing> findExisting(Collection<String> keys, LeaveRecord.DataSource source) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("source", source.name())
+                .addValue("keys", keys);
+        Map<String, Existing> existing = new HashMap<>();
+        namedJdbcTemplate.query(EXISTING_SQL, params, rs -> {
+            Existing current = existing(rs);
+            existing.put(current.externalId(), current);
+        });
+        return existing;
+    }
+
+    private Map<String, Existing> findExistingById(Collection<String> ids) {
+        Map<String, Existing> existing = new HashMap<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        namedJdbcTemplate.query(EXISTING_BY_ID_SQL, new MapSqlParameterSource("ids", ids), rs -> {
+            Existing current = existing(rs);
+            existing.put(current.id(), current);
+        });
+        return existing;
+    }
+
+    private static Existing existing(ResultSet rs) throws SQLException {
+        return new Existing(
+                rs.getString("id"),
+                rs.getString("user_id"),
+                rs.getString("source"),
+                rs.getString("external_id"),
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("end_date", LocalDate.class),
+                rs.getString("status"),
+                rs.getString("note")
+        );
+    }
+
+    // Overlap with stored leaves (other than this row's own record) or with rows accepted
+    // earlier in the same batch. Rejected rows and rows deleted by this batch never conflict.
+    private String findConflict(Row row, String id, Set<String> deletedIds, List<LeaveRecord> acceptedForUser) {
+        if (row.status() == LeaveRecord.LeaveStatus.REJECTED) {
+            return null;
+        }
+        for (LeaveRecord accepted : acceptedForUser) {
+            if (accepted.getStatus() != LeaveRecord.LeaveStatus.REJECTED
+                    && !accepted.getStartDate().isAfter(row.endDate())
+                    && !accepted.getEndDate().isBefore(row.startDate())) {
+                return "overlaps row " + (accepted.getExternalId() != null ? accepted.getExternalId() : accepted.getId());
+            }
+        }
+        List<LeaveRecord> conflicts = leaveOverlapGuard.findConflicts(row.userId(), row.startDate(), row.endDate(), id)
+                .stream()
+                .filter(leave -> !deletedIds.contains(leave.getId()))
+                .toList();
+        if (conflicts.isEmpty()) {
+            return null;
+        }
+        LeaveRecord first = conflicts.get(0);
+        return "overlaps leave " + first.getId() + " (" + first.getStartDate() + " to " + first.getEndDate() + ")";
+    }
+
+    private RawRow parseJson(String line) throws RowException {
+        try {
+            return objectMapper.readValue(line, RawRow.class);
+        } catch (JsonProcessingException e) {
+            throw new RowException("invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static LineParser csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body is empty; expected a header row");
+        }
+        List<String> columns = splitCsv(header);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            indexes.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        // Feeds key rows on externalid; exports carry an id column instead.
+        if (!indexes.containsKey("externalid") && !indexes.containsKey("id")) {
+            throw new IllegalArgumentException("CSV header is missing column externalid");
+        }
+        for (String required : List.of("userid", "startdate", "enddate")) {
+            if (!indexes.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column " + required);
+            }
+        }
+        return line -> {
+            List<String> fields = splitCsv(line);
+            return new RawRow(
+                    field(fields, indexes.get("externalid")),
+                    field(fields, indexes.get("userid")),
+                    field(fields, indexes.get("startdate")),
+                    field(fields, indexes.get("enddate")),
+                    field(fields, indexes.get("status")),
+                    field(fields, indexes.get("note")),
+                    field(fields, indexes.get("id")),
+                    field(fields, indexes.get("source"))
+            );
+        };
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    // RFC 4180 fields of one record: commas and line breaks inside double quotes, "" for a literal
+    // quote. Line breaks inside a field arrive as \n whatever the file used.
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    private static Row toRow(int line, RawRow raw) throws RowException {
+        String id = trimToNull(raw.id());
+        String externalId = trimToNull(raw.externalId());
+        String userId = trimToNull(raw.userId());
+        if (id == null && externalId == null) {
+            throw new RowException("externalId is required");
+        }
+        if (userId == null) {
+            throw new RowException("userId is required");
+        }
+        LocalDate startDate = parseDate("startDate", raw.startDate());
+        LocalDate endDate = parseDate("endDate", raw.endDate());
+        if (startDate.isAfter(endDate)) {
+            throw new RowException("startDate is after endDate");
+        }
+        LeaveRecord.LeaveStatus status = LeaveRecord.LeaveStatus.APPROVED;
+        String statusValue = trimToNull(raw.status());
+        if (statusValue != null) {
+            try {
+                status = LeaveRecord.LeaveStatus.valueOf(statusValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RowException("unknown status " + statusValue);
+            }
+        }
+        // Only rows keyed on their id keep their own source; the others belong to the import's source.
+        LeaveRecord.DataSource source = null;
+        String sourceValue = trimToNull(raw.source());
+        if (id != null && sourceValue != null) {
+            try {
+                source = LeaveRecord.DataSource.valueOf(sourceValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RowException("unknown source " + sourceValue);
+            }
+        }
+        String note = trimToNull(raw.note());
+        if (note != null && note.length() > MAX_NOTE_LENGTH) {
+            throw new RowException("note is longer than " + MAX_NOTE_LENGTH + " characters");
+        }
+        return new Row(line, id, externalId, source, userId, startDate, endDate, status, note);
+    }
+
+    private static String label(RawRow raw) {
+        return trimToNull(raw.externalId()) != null ? raw.externalId() : raw.id();
+    }
+
+    private static LocalDate parseDate(String name, String value) throws RowException {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            throw new RowException(name + " is required");
+        }
+        try {
+            return LocalDate.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new RowException(name + " is not an ISO date: " + trimmed);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class Progress {
+        int rows;
+        int inserted;
+        int updated;
+        int unchanged;
+        int deleted;
+        int failed;
+        final List<RowError> errors = new ArrayList<>();
+
+        void fail(int line, String externalId, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, externalId, message));
+            }
+        }
+
+        void fail(Row row, String message) {
+            fail(row.line(), row.label(), message);
+        }
+
+        ImportReport report(long startedNanos) {
+            errors.sort(Comparator.comparingInt(RowError::line));
+            return new ImportReport(rows, inserted, updated, unchanged, deleted, failed,
+                    (System.nanoTime() - startedNanos) / 1_000_000, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
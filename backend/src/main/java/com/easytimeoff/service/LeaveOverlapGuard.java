@@ -0,0 +1,82 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Serializes leave writes per user through a fixed set of striped locks, so two writers for the
+// same user cannot both pass the overlap check while writers for other users proceed in
+// parallel. The check reads LeaveCalendarIndex, so it costs no query once the index is warm;
+// while the index is cold it falls back to the repository, which is authoritative.
+// Locks are per JVM: a multi-instance deployment would need a database constraint as well.
+@Service
+public class LeaveOverlapGuard {
+
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final ReentrantLock[] stripes;
+
+    public LeaveOverlapGuard(
+            LeaveCalendarIndex leaveCalendarIndex,
+            @Value("${app.leave-overlap.stripes:64}") int stripeCount
+    ) {
+        this.leaveCalendarIndex = leaveCalendarIndex;
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Runs the check-and-write under the user's stripe. The action must commit and update the
+    // index before returning, so the next writer for the user sees it.
+    public <T> T withUserLock(String userId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(userId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Batch variant: takes every stripe the users map to, in index order so batches and single
+    // writes cannot deadlock.
+    public <T> T withUsersLock(Collection<String> userIds, Supplier<T> action) {
+        int[] indexes = userIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    // Non-rejected leaves of the user that share at least one day with [start, end], ignoring
+    // the leave being edited.
+    public List<LeaveRecord> findConflicts(String userId, LocalDate start, LocalDate end, String excludeId) {
+        return leaveCalendarIndex.findLeaves(List.of(userId), start, end).stream()
+                .filter(leave -> leave.getStatus() != LeaveRecord.LeaveStatus.REJECTED)
+                .filter(leave -> excludeId == null || !excludeId.equals(leave.getId()))
+                .toList();
+    }
+
+    private int stripeOf(String userId) {
+        return Math.floorMod(Objects.hashCode(userId), stripes.length);
+    }
+}
@@ -0,0 +1,47 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// app.sync.*: the scheduler switch plus per-source settings keyed by source name. A source
+// with a directory is served by FileLeaveSyncSource; other names configure LeaveSyncSource beans.
+@ConfigurationProperties(prefix = "app.sync")
+public record LeaveSyncProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("30s") Duration initialDelay,
+        Map<String, Source> sources
+) {
+
+    public LeaveSyncProperties {
+        sources = sources == null ? Map.of() : Map.copyOf(sources);
+    }
+
+    public Source source(String name) {
+        return sources.getOrDefault(name, Source.DEFAULTS);
+    }
+
+    // parallelism is the number of worker threads applying a page; changes are partitioned by
+    // user, so one user's changes are always applied in order by the same worker.
+    public record Source(
+            @DefaultValue("true") boolean enabled,
+            String directory,
+            @DefaultValue("HR") LeaveRecord.DataSource dataSource,
+            @DefaultValue("5m") Duration interval,
+            @DefaultValue("1") int parallelism,
+            @DefaultValue("500") int batchSize
+    ) {
+        static final Source DEFAULTS = new Source(true, null, LeaveRecord.DataSource.HR, Duration.ofMinutes(5), 1, 500);
+
+        public Source {
+            parallelism = Math.max(1, parallelism);
+            batchSize = Math.max(1, batchSize);
+            if (interval == null || interval.isNegative() || interval.isZero()) {
+                interval = Duration.ofMinutes(5);
+            }
+        }
+    }
+}
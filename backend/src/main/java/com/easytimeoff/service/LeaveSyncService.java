@@ -0,0 +1,375 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.SyncWatermark;
+import com.easytimeoff.repository.SyncWatermarkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pulls leave changes from each registered LeaveSyncSource since its persisted watermark and
+// applies them through LeaveImportService.applyChanges, so synced rows get the same validation,
+// overlap check, index and ETag updates as an import. A page is fetched, partitioned by user
+// across the source's worker threads, written in JDBC batches and only then is the watermark
+// advanced; a run that fails part-way resumes from the last completed page, which is safe
+// because upserts and deletes on (source, externalId) are idempotent.
+@Service
+@Slf4j
+@EnableConfigurationProperties(LeaveSyncProperties.class)
+public class LeaveSyncService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final LeaveImportService leaveImportService;
+    private final SyncWatermarkRepository watermarkRepository;
+    private final LeaveSyncProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<LeaveSyncSource> sourceBeans;
+
+    private final Map<String, Registration> registrations = new LinkedHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public LeaveSyncService(
+            LeaveImportService leaveImportService,
+            SyncWatermarkRepository watermarkRepository,
+            LeaveSyncProperties properties,
+            ObjectMapper objectMapper,
+            ObjectProvider<LeaveSyncSource> sourceBeans
+    ) {
+        this.leaveImportService = leaveImportService;
+        this.watermarkRepository = watermarkRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.sourceBeans = sourceBeans;
+    }
+
+    public record SyncRun(
+            String source,
+            String fromWatermark,
+            String toWatermark,
+            int pages,
+            int changes,
+            int inserted,
+            int updated,
+            int unchanged,
+            int deleted,
+            int failed,
+            long elapsedMs,
+            List<LeaveImportService.RowError> errors,
+            String error
+    ) {}
+
+    public record SourceStatus(
+            String name,
+            LeaveRecord.DataSource dataSource,
+            boolean scheduled,
+            Duration interval,
+            int parallelism,
+            String watermark,
+            Long watermarkUpdatedAt,
+            boolean running,
+            SyncRun lastRun
+    ) {}
+
+    @PostConstruct
+    void registerSources() {
+        properties.sources().forEach((name, settings) -> {
+            if (settings.directory() != null && !settings.directory().isBlank()) {
+                register(new FileLeaveSyncSource(name, settings.dataSource(), Path.of(settings.directory()), objectMapper));
+            }
+        });
+        sourceBeans.orderedStream().forEach(this::register);
+    }
+
+    public synchronized void register(LeaveSyncSource source) {
+        if (registrations.containsKey(source.name())) {
+            throw new IllegalStateException("Sync source " + source.name() + " is already registered");
+        }
+        registrations.put(source.name(), new Registration(source, properties.source(source.name())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.enabled()) {
+            log.info("Leave sync scheduler disabled; {} source(s) can still be run on demand.", registrations.size());
+            return;
+        }
+        List<Registration> scheduled = registrations.values().stream()
+                .filter(registration -> registration.settings.enabled())
+                .toList();
+        if (scheduled.isEmpty()) {
+            return;
+        }
+        // One scheduler thread per source so a slow source never delays the others.
+        scheduler = Executors.newScheduledThreadPool(scheduled.size(), daemonThreads("leave-sync-scheduler"));
+        for (Registration registration : scheduled) {
+            scheduler.scheduleWithFixedDelay(() -> run(registration.source.name()),
+                    properties.initialDelay().toMillis(), registration.settings.interval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        log.info("Leave sync scheduled for {}.", scheduled.stream().map(registration -> registration.source.name()).toList());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        for (Registration registration : registrations.values()) {
+            if (registration.workers != null) {
+                registration.workers.shutdown();
+            }
+        }
+    }
+
+    public synchronized boolean isRegistered(String name) {
+        return registrations.containsKey(name);
+    }
+
+    public List<SourceStatus> status() {
+        List<Registration> snapshot;
+        synchronized (this) {
+            snapshot = List.copyOf(registrations.values());
+        }
+        Map<String, SyncWatermark> watermarks = new LinkedHashMap<>();
+        watermarkRepository.findAll().forEach(watermark -> watermarks.put(watermark.getSourceName(), watermark));
+        return snapshot.stream()
+                .map(registration -> {
+                    SyncWatermark watermark = watermarks.get(registration.source.name());
+                    return new SourceStatus(
+                            registration.source.name(),
+                            registration.source.dataSource(),
+                            scheduler != null && properties.enabled() && registration.settings.enabled(),
+                            registration.settings.interval(),
+                            registration.settings.parallelism(),
+                            watermark == null ? null : watermark.getWatermark(),
+                            watermark == null ? null : watermark.getUpdatedAt(),
+                            registration.running.isLocked(),
+                            registration.lastRun
+                    );
+                })
+                .toList();
+    }
+
+    // Runs the source now unless a run is already in progress (empty result). Throws
+    // IllegalArgumentException for an unknown source.
+    public Optional<SyncRun> run(String name) {
+        Registration registration;
+        synchronized (this) {
+            registration = registrations.get(name);
+        }
+        if (registration == null) {
+            throw new IllegalArgumentException("Unknown sync source " + name);
+        }
+        if (!registration.running.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            SyncRun run = runLocked(registration);
+            registration.lastRun = run;
+            return Optional.of(run);
+        } finally {
+            registration.running.unlock();
+        }
+    }
+
+    private SyncRun runLocked(Registration registration) {
+        long started = System.nanoTime();
+        String name = registration.source.name();
+        String from = watermarkRepository.findById(name).map(SyncWatermark::getWatermark).orElse(null);
+        String watermark = from;
+        Totals totals = new Totals();
+        int pageSize = registration.settings.batchSize() * registration.settings.parallelism();
+        int pages = 0;
+        String error = null;
+        try {
+            while (true) {
+                LeaveSyncSource.ChangeBatch batch = registration.source.fetchChanges(watermark, pageSize);
+                pages++;
+                apply(registration, batch.changes(), totals);
+                batch.errors().forEach(message -> totals.fail(null, message));
+                boolean advanced = batch.watermark() != null && !batch.watermark().equals(watermark);
+                if (advanced) {
+                    watermark = batch.watermark();
+                    watermarkRepository.save(new SyncWatermark(name, watermark, System.currentTimeMillis()));
+                }
+                if (!batch.hasMore() || !advanced) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            log.warn("Leave sync from {} stopped at watermark {}.", name, watermark, e);
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        if (totals.changes > 0 || error != null) {
+            log.info("Synced {} leave changes from {} ({} inserted, {} updated, {} unchanged, {} deleted, {} failed) in {} ms.",
+                    totals.changes, name, totals.inserted, totals.updated, totals.unchanged, totals.deleted, totals.failed, elapsedMs);
+        }
+        return new SyncRun(name, from, watermark, pages, totals.changes, totals.inserted, totals.updated, totals.unchanged,
+                totals.deleted, totals.failed, elapsedMs, List.copyOf(totals.errors), error);
+    }
+
+    private void apply(Registration registration, List<LeaveSyncSource.Change> changes, Totals totals) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Only the last change per key in a page matters; this also keeps every key in one partition.
+        Map<String, LeaveSyncSource.Change> latest = new LinkedHashMap<>();
+        for (LeaveSyncSource.Change change : changes) {
+            String key = trimToNull(change.row().externalId());
+            if (key == null) {
+                totals.fail(null, "externalId is required");
+                continue;
+            }
+            latest.remove(key);
+            latest.put(key, change);
+        }
+        totals.changes += changes.size();
+
+        int parallelism = registration.settings.parallelism();
+        List<List<LeaveSyncSource.Change>> partitions = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        latest.forEach((key, change) -> {
+            String userId = trimToNull(change.row().userId());
+            String partitionKey = userId == null ? key : userId;
+            partitions.get(Math.floorMod(partitionKey.hashCode(), parallelism)).add(change);
+        });
+
+        List<List<LeaveSyncSource.Change>> nonEmpty = partitions.stream().filter(partition -> !partition.isEmpty()).toList();
+        if (nonEmpty.size() == 1) {
+            applyPartition(registration, nonEmpty.get(0), totals);
+            return;
+        }
+        List<Callable<Void>> tasks = nonEmpty.stream()
+                .map(partition -> (Callable<Void>) () -> {
+                    applyPartition(registration, partition, totals);
+                    return null;
+                })
+                .toList();
+        try {
+            for (Future<Void> future : registration.workers().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while applying sync page", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sync partition failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void applyPartition(Registration registration, List<LeaveSyncSource.Change> partition, Totals totals) {
+        int batchSize = registration.settings.batchSize();
+        for (int start = 0; start < partition.size(); start += batchSize) {
+            List<LeaveImportService.RawRow> upserts = new ArrayList<>();
+            List<String> deletes = new ArrayList<>();
+            for (LeaveSyncSource.Change change : partition.subList(start, Math.min(partition.size(), start + batchSize))) {
+                if (change.type() == LeaveSyncSource.ChangeType.DELETE) {
+                    deletes.add(change.row().externalId().trim());
+                } else {
+                    upserts.add(change.row());
+                }
+            }
+            totals.add(leaveImportService.applyChanges(registration.source.dataSource(), upserts, deletes));
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Registration {
+        final LeaveSyncSource source;
+        final LeaveSyncProperties.Source settings;
+        final ReentrantLock running = new ReentrantLock();
+        volatile SyncRun lastRun;
+        private ExecutorService workers;
+
+        Registration(LeaveSyncSource source, LeaveSyncProperties.Source settings) {
+            this.source = source;
+            this.settings = settings;
+        }
+
+        synchronized ExecutorService workers() {
+            if (workers == null) {
+                workers = Executors.newFixedThreadPool(settings.parallelism(), daemonThreads("leave-sync-" + source.name()));
+            }
+            return workers;
+        }
+    }
+
+    // Merged from worker threads, hence synchronized.
+    private static final class Totals {
+        int changes;
+        int inserted;
+        int updated;
+        int unchanged;
+        int deleted;
+        int failed;
+        final List<LeaveImportService.RowError> errors = new ArrayList<>();
+
+        synchronized void add(LeaveImportService.ImportReport report) {
+            inserted += report.inserted();
+            updated += report.updated();
+            unchanged += report.unchanged();
+            deleted += report.deleted();
+            failed += report.failed();
+            // Line numbers are positions within one batch, meaningless to the caller; the
+            // externalId identifies the change.
+            for (LeaveImportService.RowError rowError : report.errors()) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new LeaveImportService.RowError(0, rowError.externalId(), rowError.message()));
+                }
+            }
+        }
+
+        synchronized void fail(String externalId, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new LeaveImportService.RowError(0, externalId, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+
+import java.io.IOException;
+import java.util.List;
+
+// An external feed of leave changes that LeaveSyncService pulls incrementally. Sources are
+// stateless between calls: the service persists the watermark returned with each batch and
+// hands it back on the next fetch. Register one as a Spring bean, or configure a directory
+// under app.sync.sources.<name> for the built-in NDJSON file source.
+public interface LeaveSyncSource {
+
+    // Unique key for the watermark row and the app.sync.sources.<name> settings.
+    String name();
+
+    // Every change from this source is written with this DataSource; externalIds are scoped to it.
+    LeaveRecord.DataSource dataSource();
+
+    // Up to limit changes strictly after watermark (null on the first run), oldest first.
+    ChangeBatch fetchChanges(String watermark, int limit) throws IOException;
+
+    enum ChangeType {
+        UPSERT, DELETE
+    }
+
+    // A delete only needs externalId; a userId on it keeps it in the same partition as that
+    // user's upserts.
+    record Change(ChangeType type, LeaveImportService.RawRow row) {
+
+        public static Change upsert(LeaveImportService.RawRow row) {
+            return new Change(ChangeType.UPSERT, row);
+        }
+
+        public static Change delete(String externalId, String userId) {
+            return new Change(ChangeType.DELETE, new LeaveImportService.RawRow(externalId, userId, null, null, null, null));
+        }
+    }
+
+    // watermark is the position just after the last change; hasMore asks for another fetch
+    // in the same run. errors describes input the source skipped (e.g. unparseable lines); each
+    // one counts as a failed change of the run.
+    record ChangeBatch(List<Change> changes, String watermark, boolean hasMore, List<String> errors) {
+
+        public ChangeBatch(List<Change> changes, String watermark, boolean hasMore) {
+            this(changes, watermark, hasMore, List.of());
+        }
+    }
+}
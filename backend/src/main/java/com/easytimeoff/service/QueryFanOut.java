@@ -0,0 +1,126 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.util.RequestQueryStats;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Runs two independent reads at once: the second on a fresh virtual thread, the first on the
+// caller's, joined before returning. Scoped like a structured task scope (StructuredTaskScope
+// is still a preview API in JDK 21): neither task outlives the call, and a failure in one
+// cancels the other and is rethrown to the caller.
+//
+// Forked tasks run outside the caller's transaction and persistence context, so they must be
+// self-contained reads (repository calls, caches, the in-memory indexes) returning detached data.
+// Each one may hold its own pooled connection, so forks are capped by a semaphore sized against
+// the Hikari pool; when no permit is free the second task simply runs inline after the first.
+@Service
+@Slf4j
+public class QueryFanOut {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean enabled;
+
+    public QueryFanOut(
+            DataSource dataSource,
+            @Value("${app.fan-out.enabled:true}") boolean enabled,
+            @Value("${app.fan-out.max-concurrent:0}") int maxConcurrent
+    ) {
+        int limit = maxConcurrent > 0 ? maxConcurrent : defaultLimit(dataSource);
+        this.enabled = enabled;
+        this.permits = new Semaphore(limit);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+        log.info("Query fan-out {} with at most {} forked queries in flight.", enabled ? "enabled" : "disabled", limit);
+    }
+
+    public record Both<A, B>(A first, B second) {}
+
+    public <A, B> Both<A, B> both(Supplier<A> first, Supplier<B> second) {
+        if (!enabled || !permits.tryAcquire()) {
+            return new Both<>(first.get(), second.get());
+        }
+        // Released by the task when it finishes, or here if it is cancelled before it starts.
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                permits.release();
+            }
+        };
+        // Statements the fork runs still count towards the caller's request (Server-Timing).
+        Supplier<B> task = RequestQueryStats.propagate(second);
+        Future<B> forked;
+        try {
+            forked = executor.submit(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    release.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        A a;
+        try {
+            a = first.get();
+        } catch (RuntimeException | Error e) {
+            forked.cancel(true);
+            release.run();
+            throw e;
+        }
+        try {
+            return new Both<>(a, forked.get());
+        } catch (InterruptedException e) {
+            forked.cancel(true);
+            release.run();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a forked query");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    // Half the pool: the request thread may already hold one connection (open-in-view keeps it
+    // for the whole request), so forks must leave room for requests that are not fanning out.
+    private static int defaultLimit(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return Math.max(1, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() / 2);
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap the pool; using the default fork limit.", e);
+        }
+        return 4;
+    }
+}
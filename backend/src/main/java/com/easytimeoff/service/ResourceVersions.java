@@ -0,0 +1,70 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import com.easytimeoff.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic version counters for users, teams and pods, used to build strong ETags for the
+// calendar and profile reads so unchanged views are answered with 304 before any query runs.
+// Counters are in-memory, so every tag also carries a per-boot epoch: a tag issued by a previous
+// process never matches, even though the counters restart from zero.
+@Service
+@RequiredArgsConstructor
+public class ResourceVersions {
+
+    private final TeamRepository teamRepository;
+    private final PodRepository podRepository;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    public enum Kind {
+        USER, TEAM, POD
+    }
+
+    public long version(Kind kind, String id) {
+        return versions.getOrDefault(key(kind, id), 0L);
+    }
+
+    // Callers read the tag before querying, so a write racing with the read can only make
+    // the tag older than the body, never newer.
+    public String etag(Kind kind, String id) {
+        return "\"" + kind.name().charAt(0) + "-" + epoch + "-" + version(kind, id) + "\"";
+    }
+
+    public void bump(Kind kind, String id) {
+        if (id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> versions.put(key(kind, id), sequence.incrementAndGet()));
+    }
+
+    // A leave write changes the user's own view and every team or pod calendar they appear in.
+    public void leavesChanged(String userId) {
+        if (userId != null) {
+            leavesChanged(List.of(userId));
+        }
+    }
+
+    public void leavesChanged(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userIds.forEach(userId -> bump(Kind.USER, userId));
+        teamRepository.findIdsByMemberIdIn(userIds).forEach(teamId -> bump(Kind.TEAM, teamId));
+        podRepository.findIdsByMemberIdIn(userIds).forEach(podId -> bump(Kind.POD, podId));
+    }
+
+    private static String key(Kind kind, String id) {
+        return kind.name() + ":" + id;
+    }
+}
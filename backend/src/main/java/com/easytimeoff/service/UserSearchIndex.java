@@ -0,0 +1,359 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.User;
+import com.easytimeoff.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-process n-gram inverted index over displayName, email and employeeID. Every 1-, 2- and
+// 3-character gram of each field maps to an ascending list of document ids, so queries of up
+// to three characters are a single posting-list read and longer ones intersect their trigram
+// lists and verify the survivors with a substring check.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    private final UserRepository userRepository;
+
+    @Value("${app.user-search-index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<String, Integer> docByUserId = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private int tombstones;
+
+    private final Set<String> staleUsers = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("User search index disabled. Directory search uses the JPQL query.");
+            return;
+        }
+        long started = System.nanoTime();
+        List<User> users = userRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            users.forEach(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        synchronized (loadLock) {
+            staleUsers.forEach(this::reloadUser);
+            staleUsers.clear();
+            ready = true;
+        }
+        log.info("User search index built for {} users ({} grams) in {} ms.",
+                users.size(), postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ranked search; limit < 1 returns every match. Callers should check isReady() first.
+    public List<User> search(String query, int offset, int limit) {
+        int safeOffset = Math.max(0, offset);
+        int bound = limit < 1 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) safeOffset + limit);
+        List<Hit> ranked = topHits(query, null, bound);
+        if (safeOffset >= ranked.size()) {
+            return List.of();
+        }
+        return ranked.subList(safeOffset, ranked.size()).stream()
+                .map(Hit::user)
+                .toList();
+    }
+
+    // Keyset variant of search: returns the next limit hits ranked strictly after the given
+    // position (null for the first page), plus the position of the last hit returned.
+    public Page searchAfter(String query, Position after, int limit) {
+        Hit afterHit = after == null ? null : new Hit(after.score(), after.name(), after.userId(), null);
+        List<Hit> ranked = topHits(query, afterHit, Math.max(1, limit));
+        if (ranked.isEmpty()) {
+            return new Page(List.of(), null);
+        }
+        Hit last = ranked.get(ranked.size() - 1);
+        return new Page(
+                ranked.stream().map(Hit::user).toList(),
+                new Position(last.score(), last.name(), last.id())
+        );
+    }
+
+    public record Position(int score, String name, String userId) {}
+
+    public record Page(List<User> users, Position last) {}
+
+    private List<Hit> topHits(String query, Hit after, int bound) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Hit> worstFirst = new PriorityQueue<>(Hit.RANKING.reversed());
+            forEachMatch(needle, doc -> {
+                Hit hit = new Hit(score(doc, needle), doc.name(), doc.user().getId(), doc.user());
+                if (after != null && Hit.RANKING.compare(hit, after) <= 0) {
+                    return;
+                }
+                if (worstFirst.size() < bound) {
+                    worstFirst.add(hit);
+                } else if (Hit.RANKING.compare(hit, worstFirst.peek()) < 0) {
+                    worstFirst.poll();
+                    worstFirst.add(hit);
+                }
+            });
+            List<Hit> ranked = new ArrayList<>(worstFirst);
+            ranked.sort(Hit.RANKING);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(User user) {
+        if (user == null || user.getId() == null || !enabled) {
+            return;
+        }
+        if (parkIfLoading(user.getId())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(user.getId());
+            addLocked(user);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String userId) {
+        if (userId == null || !enabled) {
+            return;
+        }
+        if (parkIfLoading(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean parkIfLoading(String userId) {
+        if (ready) {
+            return false;
+        }
+        synchronized (loadLock) {
+            if (!ready) {
+                staleUsers.add(userId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reloadUser(String userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+            if (user != null) {
+                addLocked(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forEachMatch(String needle, Consumer<Doc> visitor) {
+        if (needle.length() <= MAX_GRAM) {
+            IntList list = postings.get(gramKey(needle, 0, needle.length()));
+            if (list == null) {
+                return;
+            }
+            for (int i = 0; i < list.size; i++) {
+                Doc doc = docs.get(list.values[i]);
+                if (doc != null) {
+                    visitor.accept(doc);
+                }
+            }
+            return;
+        }
+
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= needle.length(); i++) {
+            keys.add(gramKey(needle, i, i + MAX_GRAM));
+        }
+        List<IntList> lists = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            IntList list = postings.get(key);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        IntList smallest = lists.get(0);
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int docId = smallest.values[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(docId)) {
+                    continue outer;
+                }
+            }
+            Doc doc = docs.get(docId);
+            if (doc != null && doc.contains(needle)) {
+                visitor.accept(doc);
+            }
+        }
+    }
+
+    private static int score(Doc doc, String needle) {
+        if (doc.name().equals(needle) || doc.employeeId().equals(needle)) {
+            return 100;
+        }
+        if (doc.name().startsWith(needle)) {
+            return 80;
+        }
+        if (doc.employeeId().startsWith(needle) || doc.email().startsWith(needle)) {
+            return 60;
+        }
+        if (doc.name().contains(" " + needle)) {
+            return 50;
+        }
+        return doc.name().contains(needle) ? 30 : 10;
+    }
+
+    private void addLocked(User user) {
+        int docId = docs.size();
+        Doc doc = new Doc(copyOf(user), normalize(user.getDisplayName()), normalize(user.getEmail()),
+                normalize(user.getEmployeeID()));
+        docs.add(doc);
+        docByUserId.put(user.getId(), docId);
+
+        Set<Long> grams = new HashSet<>();
+        for (String field : doc.fields()) {
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int i = 0; i + length <= field.length(); i++) {
+                    grams.add(gramKey(field, i, i + length));
+                }
+            }
+        }
+        for (Long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(docId);
+        }
+    }
+
+    private void removeLocked(String userId) {
+        Integer docId = docByUserId.remove(userId);
+        if (docId != null && docs.get(docId) != null) {
+            docs.set(docId, null);
+            tombstones++;
+        }
+    }
+
+    // Postings keep dead doc ids until enough accumulate to be worth a rebuild.
+    private void compactIfNeeded() {
+        if (tombstones < 1024 || tombstones * 4 < docs.size()) {
+            return;
+        }
+        List<User> live = docs.stream().filter(Objects::nonNull).map(Doc::user).toList();
+        docs.clear();
+        docByUserId.clear();
+        postings.clear();
+        tombstones = 0;
+        live.forEach(this::addLocked);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Packs up to three UTF-16 chars plus the gram length into one long.
+    private static long gramKey(String value, int start, int end) {
+        long key = end - start;
+        for (int i = start; i < end; i++) {
+            key = (key << 16) | value.charAt(i);
+        }
+        return key;
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .employeeID(user.getEmployeeID())
+                .displayName(user.getDisplayName())
+                .email(user.getEmail())
+                .country(user.getCountry())
+                .avatar(user.getAvatar())
+                .teamId(user.getTeamId())
+                .adPrincipalId(user.getAdPrincipalId())
+                .build();
+    }
+
+    private record Doc(User user, String name, String email, String employeeId) {
+        Collection<String> fields() {
+            return List.of(name, email, employeeId);
+        }
+
+        boolean contains(String needle) {
+            return name.contains(needle) || email.contains(needle) || employeeId.contains(needle);
+        }
+    }
+
+    private record Hit(int score, String name, String id, User user) {
+        static final Comparator<Hit> RANKING = Comparator
+                .comparingInt(Hit::score).reversed()
+                .thenComparing(Hit::name)
+                .thenComparing(Hit::id);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
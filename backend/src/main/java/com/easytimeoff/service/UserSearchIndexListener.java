@@ -0,0 +1,35 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import static com.easytimeoff.util.TransactionHooks.afterCommit;
+
+// JPA entity listener that keeps UserSearchIndex in step with user writes. Changes are applied
+// after commit so a rolled-back write never becomes searchable. The index is looked up lazily
+// because Hibernate builds listeners while the EntityManagerFactory is still being created.
+@Component
+public class UserSearchIndexListener {
+
+    private final ObjectProvider<UserSearchIndex> userSearchIndex;
+
+    public UserSearchIndexListener(ObjectProvider<UserSearchIndex> userSearchIndex) {
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        afterCommit(() -> userSearchIndex.getObject().upsert(user));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        String userId = user.getId();
+        afterCommit(() -> userSearchIndex.getObject().remove(userId));
+    }
+}
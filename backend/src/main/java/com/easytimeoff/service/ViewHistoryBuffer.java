@@ -0,0 +1,325 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.ViewHistory;
+import com.easytimeoff.util.DatabaseProducts;
+import com.easytimeoff.util.TimeOrderedIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind buffer for view history. Page views are coalesced in memory per
+// (userId, itemId, type), keeping the latest timestamp and name, and flushed on a timer as one
+// batched upsert (INSERT ... ON CONFLICT on PostgreSQL, MERGE elsewhere), so a burst of views of
+// the same page costs one row write and concurrent posts can no longer race on the unique
+// constraint. Entries stay visible to pending() until their flush commits; the buffer is
+// drained on shutdown. With the buffer disabled each view is upserted immediately.
+//
+// max-pending is a hard cap on buffered entries: once reached, views of items not already
+// buffered are rejected (an early flush is requested) until a flush frees room. A batch that
+// fails is retried row by row, and rows the database rejects as invalid are logged and dropped.
+@Service
+@Slf4j
+public class ViewHistoryBuffer {
+
+    private static final String POSTGRES_UPSERT_SQL = "INSERT INTO view_history (id, user_id, item_id, type, name, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, item_id, type) DO UPDATE SET name = EXCLUDED.name, timestamp = EXCLUDED.timestamp " +
+            "WHERE view_history.timestamp <= EXCLUDED.timestamp";
+    private static final String MERGE_SQL = "MERGE INTO view_history t " +
+            "USING (SELECT CAST(? AS VARCHAR(255)) AS id, CAST(? AS VARCHAR(255)) AS user_id, CAST(? AS VARCHAR(255)) AS item_id, " +
+            "CAST(? AS VARCHAR(255)) AS type, CAST(? AS VARCHAR(255)) AS name, CAST(? AS BIGINT) AS ts) s " +
+            "ON (t.user_id = s.user_id AND t.item_id = s.item_id AND t.type = s.type) " +
+            "WHEN MATCHED AND t.timestamp <= s.ts THEN UPDATE SET name = s.name, timestamp = s.ts " +
+            "WHEN NOT MATCHED THEN INSERT (id, user_id, item_id, type, name, timestamp) " +
+            "VALUES (s.id, s.user_id, s.item_id, s.type, s.name, s.ts)";
+
+    private static final Comparator<ViewHistory> NEWEST_FIRST = Comparator
+            .comparingLong(ViewHistory::getTimestamp).reversed()
+            .thenComparing(ViewHistory::getId, Comparator.reverseOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int maxPending;
+
+    // userId -> (itemId, type) -> latest view. Inner maps are only touched inside compute() on
+    // the outer map, which serializes writers and flushes per user.
+    private final ConcurrentHashMap<String, Map<ItemKey, ViewHistory>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<ItemKey, ViewHistory>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private String upsertSql = MERGE_SQL;
+    private ScheduledExecutorService flusher;
+
+    public ViewHistoryBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.history-buffer.enabled:true}") boolean enabled,
+            @Value("${app.history-buffer.flush-interval:1s}") Duration flushInterval,
+            @Value("${app.history-buffer.max-pending:10000}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    private record ItemKey(String itemId, ViewHistory.ViewType type) {}
+
+    @PostConstruct
+    void start() {
+        try {
+            if (DatabaseProducts.isPostgres(jdbcTemplate.getDataSource())) {
+                upsertSql = POSTGRES_UPSERT_SQL;
+            }
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database; using MERGE for view history upserts.", e);
+        }
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(10, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        flush();
+    }
+
+    // Records a view at the current time and returns it as it will be stored; empty when the
+    // buffer is full.
+    public Optional<ViewHistory> record(String userId, String itemId, ViewHistory.ViewType type, String name) {
+        ViewHistory view = ViewHistory.builder()
+                .id(TimeOrderedIds.next())
+                .userId(userId)
+                .itemId(itemId)
+                .type(type)
+                .name(name == null ? "" : name)
+                .timestamp(System.currentTimeMillis())
+                .build();
+        if (!enabled) {
+            upsert(List.of(view));
+            return Optional.of(view);
+        }
+        ItemKey item = new ItemKey(itemId, type);
+        AtomicBoolean accepted = new AtomicBoolean(true);
+        pending.compute(userId, (key, views) -> {
+            Map<ItemKey, ViewHistory> next = views == null ? new HashMap<>() : views;
+            ViewHistory previous = next.get(item);
+            if (previous == null) {
+                // A new entry needs a free slot; a repeat view of a buffered item always coalesces.
+                if (!reserveSlot()) {
+                    accepted.set(false);
+                    return next.isEmpty() ? null : next;
+                }
+                next.put(item, view);
+            } else if (previous.getTimestamp() <= view.getTimestamp()) {
+                next.put(item, view);
+            }
+            return next;
+        });
+        if (pendingCount.get() >= maxPending) {
+            requestFlush();
+        }
+        if (!accepted.get()) {
+            dropped.incrementAndGet();
+            log.debug("View history buffer is full ({} entries); dropping a view of user {}.", maxPending, userId);
+            return Optional.empty();
+        }
+        return Optional.of(view);
+    }
+
+    // Views of this user not yet committed, newest first. Read this before querying the table:
+    // an entry leaves the buffer only after its row is committed.
+    public List<ViewHistory> pending(String userId) {
+        Map<ItemKey, ViewHistory> latest = new HashMap<>();
+        collect(pending, userId, latest);
+        collect(inFlight, userId, latest);
+        List<ViewHistory> views = new ArrayList<>(latest.values());
+        views.sort(NEWEST_FIRST);
+        return views;
+    }
+
+    // Stored rows overlaid with buffered views: a newer buffered view replaces the stored row for
+    // the same item, and the result is sorted newest first.
+    public static List<ViewHistory> merge(List<ViewHistory> stored, List<ViewHistory> buffered) {
+        if (buffered.isEmpty()) {
+            return stored;
+        }
+        Map<ItemKey, ViewHistory> byItem = new LinkedHashMap<>();
+        stored.forEach(view -> byItem.put(new ItemKey(view.getItemId(), view.getType()), view));
+        // The stored row keeps its id through the upsert, so the merged view takes it too.
+        buffered.forEach(view -> byItem.merge(new ItemKey(view.getItemId(), view.getType()), view,
+                (current, candidate) -> candidate.getTimestamp() >= current.getTimestamp()
+                        ? candidate.toBuilder().id(current.getId()).build()
+                        : current));
+        List<ViewHistory> merged = new ArrayList<>(byItem.values());
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    // Views rejected because the buffer was full, plus rows the database refused to store.
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            List<ViewHistory> batch = new ArrayList<>();
+            for (String userId : List.copyOf(pending.keySet())) {
+                // Publish to inFlight before removing from pending so readers never miss an entry.
+                pending.computeIfPresent(userId, (key, views) -> {
+                    inFlight.merge(key, views, ViewHistoryBuffer::mergeViews);
+                    batch.addAll(views.values());
+                    pendingCount.addAndGet(-views.size());
+                    return null;
+                });
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                upsert(batch);
+            } catch (DataAccessException e) {
+                // Put back what could not be written (newer views win) and retry on the next tick.
+                List<ViewHistory> unwritten = upsertEach(batch);
+                unwritten.forEach(view -> pending.compute(view.getUserId(), (key, views) -> {
+                    Map<ItemKey, ViewHistory> next = views == null ? new HashMap<>() : views;
+                    ViewHistory previous = next.putIfAbsent(new ItemKey(view.getItemId(), view.getType()), view);
+                    if (previous == null) {
+                        pendingCount.incrementAndGet();
+                    }
+                    return next;
+                }));
+                if (!unwritten.isEmpty()) {
+                    throw e;
+                }
+            } finally {
+                inFlight.clear();
+            }
+            log.debug("Flushed {} view history entries.", batch.size());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("View history flush failed; entries kept for the next attempt.", e);
+        }
+    }
+
+    // Retries a failed batch one row at a time so a single bad row cannot hold back the rest. Rows
+    // the database rejects as invalid are dropped; after any other failure (e.g. the database is
+    // unreachable) that row and all remaining ones are returned unwritten.
+    private List<ViewHistory> upsertEach(List<ViewHistory> views) {
+        List<ViewHistory> unwritten = new ArrayList<>();
+        for (ViewHistory view : views) {
+            if (!unwritten.isEmpty()) {
+                unwritten.add(view);
+                continue;
+            }
+            try {
+                upsert(List.of(view));
+            } catch (DataIntegrityViolationException e) {
+                dropped.incrementAndGet();
+                log.warn("Dropping view history entry of user {} for {} {}: {}", view.getUserId(), view.getType(),
+                        view.getItemId(), e.getMostSpecificCause().getMessage());
+            } catch (DataAccessException e) {
+                unwritten.add(view);
+            }
+        }
+        return unwritten;
+    }
+
+    // Claims one of the max-pending slots, or returns false when none is free.
+    private boolean reserveSlot() {
+        int count;
+        do {
+            count = pendingCount.get();
+            if (count >= maxPending) {
+                return false;
+            }
+        } while (!pendingCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    // Queues at most one early flush however many views arrive while the buffer is full.
+    private void requestFlush() {
+        if (flusher != null && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void upsert(List<ViewHistory> views) {
+        // A stable order keeps row locks taken in the same order by concurrent flushers.
+        List<Object[]> rows = views.stream()
+                .sorted(Comparator.comparing(ViewHistory::getUserId)
+                        .thenComparing(ViewHistory::getItemId)
+                        .thenComparing(ViewHistory::getType))
+                .map(view -> new Object[]{
+                        view.getId(), view.getUserId(), view.getItemId(), view.getType().name(), view.getName(), view.getTimestamp()
+                })
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(upsertSql, rows));
+    }
+
+    private static void collect(Map<String, Map<ItemKey, ViewHistory>> source, String userId, Map<ItemKey, ViewHistory> into) {
+        source.computeIfPresent(userId, (key, views) -> {
+            views.forEach((item, view) -> into.merge(item, view,
+                    (current, candidate) -> candidate.getTimestamp() >= current.getTimestamp() ? candidate : current));
+            return views;
+        });
+    }
+
+    private static Map<ItemKey, ViewHistory> mergeViews(Map<ItemKey, ViewHistory> current, Map<ItemKey, ViewHistory> added) {
+        Map<ItemKey, ViewHistory> next = new HashMap<>(current);
+        added.forEach((item, view) -> next.merge(item, view,
+                (a, b) -> b.getTimestamp() >= a.getTimestamp() ? b : a));
+        return next;
+    }
+}
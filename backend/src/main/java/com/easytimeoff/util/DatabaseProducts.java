@@ -0,0 +1,20 @@
+package com.easytimeoff.util;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+public final class DatabaseProducts {
+
+    private DatabaseProducts() {
+    }
+
+    // True when the data source is PostgreSQL, whose upserts report what they did; other databases use MERGE.
+    public static boolean isPostgres(DataSource dataSource) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        return product != null && product.toLowerCase(Locale.ROOT).contains("postgres");
+    }
+}
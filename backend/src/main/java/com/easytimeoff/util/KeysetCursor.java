@@ -0,0 +1,90 @@
+package com.easytimeoff.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+// Opaque keyset pagination cursor: a kind tag followed by the last row's sort key(s) and id,
+// base64url-encoded. Clients only echo it back; the first page is requested with an empty cursor.
+public final class KeysetCursor {
+
+    public static final String HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "\u001F";
+
+    private final List<String> keys;
+
+    private KeysetCursor(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public static KeysetCursor of(String kind, Object... keys) {
+        String[] parts = new String[keys.length + 1];
+        parts[0] = kind;
+        for (int i = 0; i < keys.length; i++) {
+            parts[i + 1] = String.valueOf(keys[i]);
+        }
+        return new KeysetCursor(List.of(parts));
+    }
+
+    // Returns null for an empty token (first page); rejects anything that is not a cursor of
+    // the expected kind with 400.
+    public static KeysetCursor parse(String token, String kind, int keyCount) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw invalid();
+        }
+        List<String> parts = Arrays.asList(decoded.split(SEPARATOR, -1));
+        if (parts.size() != keyCount + 1 || !parts.get(0).equals(kind)) {
+            throw invalid();
+        }
+        return new KeysetCursor(parts);
+    }
+
+    public String encode() {
+        byte[] raw = String.join(SEPARATOR, keys).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public String key(int index) {
+        return keys.get(index + 1);
+    }
+
+    public long longKey(int index) {
+        try {
+            return Long.parseLong(key(index));
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    public int intKey(int index) {
+        try {
+            return Integer.parseInt(key(index));
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    public LocalDate dateKey(int index) {
+        try {
+            return LocalDate.parse(key(index));
+        } catch (DateTimeParseException ex) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
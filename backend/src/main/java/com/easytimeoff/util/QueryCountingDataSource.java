@@ -0,0 +1,86 @@
+package com.easytimeoff.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Hands out connections whose statements report every execute* call (queries, updates and
+// batches, whether issued by Hibernate or JdbcTemplate) to the current RequestQueryStats. With
+// no request bound to the thread the proxies only delegate. unwrap/isWrapperFor reach the pool,
+// so Hikari metrics and pool sizing still see the HikariDataSource underneath.
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection(), QueryCountingDataSource::connectionCall);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password), QueryCountingDataSource::connectionCall);
+    }
+
+    private static Object connectionCall(Object target, Method method, Object[] args) throws Throwable {
+        Object result = method.invoke(target, args);
+        if (result instanceof CallableStatement statement) {
+            return wrap(CallableStatement.class, statement, QueryCountingDataSource::statementCall);
+        }
+        if (result instanceof PreparedStatement statement) {
+            return wrap(PreparedStatement.class, statement, QueryCountingDataSource::statementCall);
+        }
+        if (result instanceof Statement statement) {
+            return wrap(Statement.class, statement, QueryCountingDataSource::statementCall);
+        }
+        return result;
+    }
+
+    private static Object statementCall(Object target, Method method, Object[] args) throws Throwable {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null || !method.getName().startsWith("execute")) {
+            return method.invoke(target, args);
+        }
+        long started = System.nanoTime();
+        try {
+            return method.invoke(target, args);
+        } finally {
+            stats.recordQuery(System.nanoTime() - started);
+        }
+    }
+
+    private interface Call {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T wrap(Class<T> type, T target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Counting" + type.getSimpleName() + "[" + target + "]";
+                default:
+                    try {
+                        return call.invoke(target, method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
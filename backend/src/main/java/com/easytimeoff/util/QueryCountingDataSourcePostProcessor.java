@@ -0,0 +1,21 @@
+package com.easytimeoff.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application's DataSource so JDBC statements are counted per request (Server-Timing).
+@Component
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+            return new QueryCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,21 @@
+package com.easytimeoff.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class RequestIds {
+
+    private RequestIds() {
+    }
+
+    // An ids query parameter arrives either repeated (?ids=a&ids=b) or as one comma-joined value (?ids=a,b).
+    public static List<String> normalize(List<String> ids) {
+        if (ids.size() == 1 && ids.get(0) != null && ids.get(0).contains(",")) {
+            return Arrays.stream(ids.get(0).split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toList();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,89 @@
+package com.easytimeoff.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// JDBC statements executed on behalf of the current request, with their time, plus the time
+// spent serializing the response body. Bound to the request thread by ServerTimingFilter;
+// work forked to other threads (QueryFanOut) carries it along via propagate(). Statements run
+// outside a request (startup, scheduled flushes) are not counted anywhere.
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos = System.nanoTime();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong dbNanos = new AtomicLong();
+    private final AtomicLong serializationNanos = new AtomicLong();
+    private volatile boolean serializationStreamed;
+
+    public static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Null when the current thread is not serving a request.
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    // Wraps a task so statements it runs on another thread count towards the caller's request.
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestQueryStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void recordQuery(long nanos) {
+        queries.incrementAndGet();
+        dbNanos.addAndGet(nanos);
+    }
+
+    public void recordSerialization(long nanos) {
+        serializationNanos.addAndGet(nanos);
+    }
+
+    // The body is being written while it is serialized, so its time is not known before the headers go out.
+    public void markSerializationStreamed() {
+        serializationStreamed = true;
+    }
+
+    public boolean serializationStreamed() {
+        return serializationStreamed;
+    }
+
+    public long queries() {
+        return queries.get();
+    }
+
+    public long dbNanos() {
+        return dbNanos.get();
+    }
+
+    public long serializationNanos() {
+        return serializationNanos.get();
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+}
@@ -0,0 +1,50 @@
+package com.easytimeoff.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUIDv7-style ids (RFC 9562): 48-bit Unix millis, a 12-bit sequence in rand_a and 62 random
+// bits. The sequence restarts at a random point below 2048 each millisecond and is incremented
+// under a CAS, so ids are strictly increasing across threads; more than ~2k ids in one
+// millisecond carry into the next timestamp instead of going backwards. The canonical
+// lower-case string therefore sorts in creation order, which keeps primary-key inserts at the
+// right edge of the B-tree.
+public final class TimeOrderedIds {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {
+    }
+
+    public static String next() {
+        return nextUuid().toString();
+    }
+
+    public static UUID nextUuid() {
+        long state = nextState(System.currentTimeMillis());
+        long millis = state >>> 12;
+        long sequence = state & 0xFFF;
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    // Millisecond timestamp of an id produced by next().
+    public static long timestampOf(String id) {
+        return UUID.fromString(id).getMostSignificantBits() >>> 16;
+    }
+
+    // (millis << 12 | sequence), never smaller than the previous value handed out.
+    private static long nextState(long now) {
+        while (true) {
+            long previous = LAST.get();
+            long next = now > (previous >>> 12)
+                    ? (now << 12) | ThreadLocalRandom.current().nextInt(0x800)
+                    : previous + 1;
+            if (LAST.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+}
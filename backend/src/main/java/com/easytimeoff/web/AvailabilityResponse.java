@@ -0,0 +1,36 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.service.AvailabilityService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Bitmaps are base64 of little-endian bytes: bit (day % 8) of byte (day / 8) marks the
+// member as out on (from + day). Trailing zero bytes are trimmed.
+public record AvailabilityResponse(
+        LocalDate from,
+        LocalDate to,
+        int days,
+        List<MemberAvailability> members,
+        int[] outCounts
+) {
+    public record MemberAvailability(String userId, String bitmap) {}
+
+    public static AvailabilityResponse of(AvailabilityService.Availability availability) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        List<MemberAvailability> members = new ArrayList<>(availability.memberIds().size());
+        for (int i = 0; i < availability.memberIds().size(); i++) {
+            byte[] bytes = availability.bitmaps().get(i).toByteArray();
+            members.add(new MemberAvailability(availability.memberIds().get(i), encoder.encodeToString(bytes)));
+        }
+        return new AvailabilityResponse(
+                availability.from(),
+                availability.to(),
+                availability.days(),
+                members,
+                availability.outCounts()
+        );
+    }
+}
@@ -0,0 +1,125 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.service.BusinessDayCalendar;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.LeaveCalendarIndex;
+import com.easytimeoff.util.RequestIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/business-days")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class BusinessDayController {
+
+    private static final int MAX_RANGE_YEARS = 10;
+    private static final int MIN_YEAR = 1;
+    private static final int MAX_YEAR = 9999;
+
+    private final BusinessDayCalendar businessDayCalendar;
+    private final EntityCache entityCache;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+
+    // Annotates leaves (or any date ranges) with the working days they consume. A range without
+    // a country uses its user's country; leave records can be posted as-is.
+    @PostMapping
+    public ResponseEntity<List<DayCount>> annotate(@RequestBody List<DayRange> ranges) {
+        if (ranges == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (DayRange range : ranges) {
+            if (range == null || range.startDate() == null || range.endDate() == null
+                    || range.endDate().isBefore(range.startDate())
+                    || range.endDate().getYear() - range.startDate().getYear() > MAX_RANGE_YEARS) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<String> unresolved = ranges.stream()
+                .filter(range -> range.country() == null && range.userId() != null)
+                .map(DayRange::userId)
+                .distinct()
+                .toList();
+        Map<String, String> countryByUser = unresolved.isEmpty()
+                ? Map.of()
+                : entityCache.getUsers(unresolved).stream()
+                        .filter(user -> user.getCountry() != null)
+                        .collect(Collectors.toMap(User::getId, User::getCountry));
+
+        List<DayCount> counts = ranges.stream()
+                .map(range -> {
+                    String country = range.country() != null ? range.country() : countryByUser.get(range.userId());
+                    return new DayCount(
+                            range.id(),
+                            range.userId(),
+                            country,
+                            range.startDate(),
+                            range.endDate(),
+                            (int) ChronoUnit.DAYS.between(range.startDate(), range.endDate()) + 1,
+                            businessDayCalendar.workingDays(country, range.startDate(), range.endDate())
+                    );
+                })
+                .toList();
+        return ResponseEntity.ok(counts);
+    }
+
+    // Yearly leave usage in working days for a pod, a team or an explicit list of users.
+    @GetMapping("/usage")
+    public ResponseEntity<List<BusinessDayCalendar.Usage>> getUsage(
+            @RequestParam(defaultValue = "2026") int year,
+            @RequestParam(required = false) String podId,
+            @RequestParam(required = false) String teamId,
+            @RequestParam(required = false) List<String> userIds
+    ) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<? extends Collection<String>> memberIds;
+        if (podId != null && !podId.isBlank()) {
+            memberIds = entityCache.getPod(podId).map(Pod::getMemberIds);
+        } else if (teamId != null && !teamId.isBlank()) {
+            memberIds = entityCache.getTeam(teamId).map(Team::getMemberIds);
+        } else if (userIds != null && !userIds.isEmpty()) {
+            memberIds = Optional.of(RequestIds.normalize(userIds));
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        if (memberIds.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (memberIds.get().isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        List<User> members = entityCache.getUsers(memberIds.get());
+        List<String> ids = members.stream().map(User::getId).toList();
+        LocalDate first = LocalDate.ofYearDay(year, 1);
+        LocalDate last = first.withDayOfYear(first.lengthOfYear());
+        return ResponseEntity.ok(businessDayCalendar.usage(members, leaveCalendarIndex.findLeaves(ids, first, last), year));
+    }
+
+    public record DayRange(String id, String userId, String country, LocalDate startDate, LocalDate endDate) {}
+
+    public record DayCount(
+            String id,
+            String userId,
+            String country,
+            LocalDate startDate,
+            LocalDate endDate,
+            int calendarDays,
+            int workingDays
+    ) {}
+}
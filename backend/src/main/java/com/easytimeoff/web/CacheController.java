@@ -0,0 +1,36 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.FavoritesCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EntityCache entityCache;
+    private final FavoritesCache favoritesCache;
+
+    @GetMapping("/stats")
+    public Map<String, CacheReport> getStats() {
+        Map<String, Long> sizes = entityCache.sizes();
+        Map<String, CacheReport> reports = new LinkedHashMap<>();
+        entityCache.stats().forEach((name, stats) -> reports.put(name, CacheReport.of(sizes.get(name), stats)));
+        reports.put("favorites", CacheReport.of(favoritesCache.size(), favoritesCache.stats()));
+        return reports;
+    }
+
+    public record CacheReport(long size, long hits, long misses, double hitRate, long evictions, long loads) {
+        static CacheReport of(long size, CacheStats stats) {
+            return new CacheReport(size, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), stats.loadCount());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.User;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar calendar payload (format=compact). Members are sent once as a dictionary; leave
+// row i is (leaveIds[i], members[memberIndex[i]], startDay[i] .. startDay[i] + length[i] - 1),
+// where startDay is an epoch day and status/source index into the statuses/sources legends.
+public record CompactLeavesResponse(
+        List<Member> members,
+        List<LeaveRecord.LeaveStatus> statuses,
+        List<LeaveRecord.DataSource> sources,
+        String[] leaveIds,
+        int[] memberIndex,
+        int[] startDay,
+        int[] length,
+        int[] status,
+        int[] source
+) {
+    private static final List<LeaveRecord.LeaveStatus> STATUSES = List.of(LeaveRecord.LeaveStatus.values());
+    private static final List<LeaveRecord.DataSource> SOURCES = List.of(LeaveRecord.DataSource.values());
+
+    public record Member(String id, String displayName, String country, String teamId) {}
+
+    public static CompactLeavesResponse of(List<User> users, List<LeaveRecord> leaves) {
+        Member[] members = new Member[users.size()];
+        Map<String, Integer> indexByUser = new HashMap<>(users.size() * 2);
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            members[i] = new Member(user.getId(), user.getDisplayName(), user.getCountry(), user.getTeamId());
+            indexByUser.put(user.getId(), i);
+        }
+
+        int rows = 0;
+        String[] leaveIds = new String[leaves.size()];
+        int[] memberIndex = new int[leaves.size()];
+        int[] startDay = new int[leaves.size()];
+        int[] length = new int[leaves.size()];
+        int[] status = new int[leaves.size()];
+        int[] source = new int[leaves.size()];
+        for (LeaveRecord leave : leaves) {
+            Integer member = indexByUser.get(leave.getUserId());
+            if (member == null) {
+                continue;
+            }
+            long start = leave.getStartDate().toEpochDay();
+            leaveIds[rows] = leave.getId();
+            memberIndex[rows] = member;
+            startDay[rows] = (int) start;
+            length[rows] = (int) (leave.getEndDate().toEpochDay() - start) + 1;
+            status[rows] = leave.getStatus() == null ? -1 : leave.getStatus().ordinal();
+            source[rows] = leave.getSource() == null ? -1 : leave.getSource().ordinal();
+            rows++;
+        }
+
+        return new CompactLeavesResponse(
+                List.of(members),
+                STATUSES,
+                SOURCES,
+                Arrays.copyOf(leaveIds, rows),
+                Arrays.copyOf(memberIndex, rows),
+                Arrays.copyOf(startDay, rows),
+                Arrays.copyOf(length, rows),
+                Arrays.copyOf(status, rows),
+                Arrays.copyOf(source, rows)
+        );
+    }
+}
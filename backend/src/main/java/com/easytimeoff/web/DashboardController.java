@@ -0,0 +1,89 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.domain.FavoriteTeam;
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.domain.User;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.FavoritesCache;
+import com.easytimeoff.service.LeaveCalendarIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final FavoritesCache favoritesCache;
+    private final EntityCache entityCache;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+
+    // Favorites, teams, members and leaves in one call: a fixed number of queries
+    // regardless of how many teams the user has favorited.
+    @GetMapping
+    public ResponseEntity<DashboardResponse> get(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (userId == null || userId.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<String> favoriteIds = favoritesCache.get(userId)
+                .stream()
+                .map(FavoriteTeam::getTeamId)
+                .toList();
+        if (favoriteIds.isEmpty()) {
+            return ResponseEntity.ok(new DashboardResponse(List.of()));
+        }
+
+        Map<String, Team> teamsById = entityCache.getTeams(favoriteIds).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        Set<String> memberIds = new LinkedHashSet<>();
+        teamsById.values().forEach(team -> memberIds.addAll(team.getMemberIds()));
+        if (memberIds.isEmpty()) {
+            List<TeamLeaves> teams = favoriteIds.stream()
+                    .map(teamsById::get)
+                    .filter(Objects::nonNull)
+                    .map(team -> new TeamLeaves(team, List.of()))
+                    .toList();
+            return ResponseEntity.ok(new DashboardResponse(teams));
+        }
+
+        Map<String, User> usersById = entityCache.getUsers(memberIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, List<LeaveRecord>> leavesByUser = leaveCalendarIndex.findLeaves(memberIds, from, to).stream()
+                .collect(Collectors.groupingBy(LeaveRecord::getUserId));
+
+        List<TeamLeaves> teams = favoriteIds.stream()
+                .map(teamsById::get)
+                .filter(Objects::nonNull)
+                .map(team -> new TeamLeaves(team, team.getMemberIds().stream()
+                        .map(usersById::get)
+                        .filter(Objects::nonNull)
+                        .map(user -> new UserLeavesResponse(user, leavesByUser.getOrDefault(user.getId(), List.of())))
+                        .toList()))
+                .toList();
+
+        return ResponseEntity.ok(new DashboardResponse(teams));
+    }
+
+    public record DashboardResponse(List<TeamLeaves> teams) {}
+
+    public record TeamLeaves(Team team, List<UserLeavesResponse> members) {}
+}
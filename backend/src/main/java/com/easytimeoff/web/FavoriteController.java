@@ -1,12 +1,13 @@
 package com.easytimeoff.web;
 
 import com.easytimeoff.domain.FavoriteTeam;
-import com.easytimeoff.repository.FavoriteTeamRepository;
-import com.easytimeoff.util.OffsetBasedPageRequest;
+import com.easytimeoff.service.FavoritesCache;
+import com.easytimeoff.service.ResourceVersions;
+import com.easytimeoff.util.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.Sort;
 
 import java.util.Collections;
 import java.util.List;
@@ -14,27 +15,35 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/favorites")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, exposedHeaders = KeysetCursor.HEADER)
 @RequiredArgsConstructor
 public class FavoriteController {
 
-    private final FavoriteTeamRepository favoriteTeamRepository;
+    private final FavoritesCache favoritesCache;
+    private final ResourceVersions resourceVersions;
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final String CURSOR_KIND = "favorites";
 
     @GetMapping
     public List<String> getByUser(
             @RequestParam(required = false) String userId,
             @RequestParam(required = false) Integer limit,
-            @RequestParam(required = false) Integer offset
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
     ) {
         if (userId == null || userId.isBlank()) {
             return Collections.emptyList();
         }
 
+        // Keyset mode: pass an empty cursor for the first page, then echo X-Next-Cursor back
+        if (cursor != null) {
+            return favoritesAfter(userId, limit, cursor, response);
+        }
+
+        List<FavoriteTeam> favorites = favoritesCache.get(userId);
         if (limit == null) {
-            return favoriteTeamRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                    .stream()
-                    .map(FavoriteTeam::getTeamId)
-                    .collect(Collectors.toList());
+            return teamIds(favorites);
         }
 
         if (limit < 1) {
@@ -42,16 +51,10 @@ public class FavoriteController {
         }
 
         int safeOffset = offset == null ? 0 : Math.max(0, offset);
-        OffsetBasedPageRequest pageRequest = new OffsetBasedPageRequest(
-                safeOffset,
-                limit,
-                Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-
-        return favoriteTeamRepository.findByUserIdOrderByCreatedAtDesc(userId, pageRequest)
-                .stream()
-                .map(FavoriteTeam::getTeamId)
-                .collect(Collectors.toList());
+        if (safeOffset >= favorites.size()) {
+            return Collections.emptyList();
+        }
+        return teamIds(favorites.subList(safeOffset, (int) Math.min(favorites.size(), (long) safeOffset + limit)));
     }
 
     @PostMapping
@@ -60,22 +63,35 @@ public class FavoriteController {
             return ResponseEntity.badRequest().build();
         }
 
-        favoriteTeamRepository.findByUserIdAndTeamId(request.userId(), request.teamId())
-                .ifPresentOrElse(
-                        favoriteTeamRepository::delete,
-                        () -> favoriteTeamRepository.save(FavoriteTeam.builder()
-                                .userId(request.userId())
-                                .teamId(request.teamId())
-                                .createdAt(System.currentTimeMillis())
-                                .build())
-                );
-
-        List<String> ids = favoriteTeamRepository.findByUserIdOrderByCreatedAtDesc(request.userId())
-                .stream()
+        FavoritesCache.Toggle toggle = favoritesCache.toggle(request.userId(), request.teamId());
+        if (toggle.outcome() != FavoritesCache.Outcome.UNCHANGED) {
+            resourceVersions.bump(ResourceVersions.Kind.USER, request.userId());
+        }
+        return ResponseEntity.ok(teamIds(toggle.favorites()));
+    }
+
+    private List<String> favoritesAfter(String userId, Integer limit, String cursor, HttpServletResponse response) {
+        KeysetCursor after = KeysetCursor.parse(cursor, CURSOR_KIND, 2);
+        int pageSize = limit == null || limit < 1 ? DEFAULT_PAGE_LIMIT : limit;
+
+        // The cached list is already in (createdAt, id) descending order.
+        List<FavoriteTeam> page = favoritesCache.get(userId).stream()
+                .filter(favorite -> after == null || favorite.getCreatedAt() < after.longKey(0)
+                        || (favorite.getCreatedAt() == after.longKey(0) && favorite.getId().compareTo(after.key(1)) < 0))
+                .limit(pageSize)
+                .toList();
+
+        if (page.size() == pageSize && response != null) {
+            FavoriteTeam last = page.get(page.size() - 1);
+            response.setHeader(KeysetCursor.HEADER, KeysetCursor.of(CURSOR_KIND, last.getCreatedAt(), last.getId()).encode());
+        }
+        return teamIds(page);
+    }
+
+    private static List<String> teamIds(List<FavoriteTeam> favorites) {
+        return favorites.stream()
                 .map(FavoriteTeam::getTeamId)
                 .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ids);
     }
 
     public record FavoriteRequest(String userId, String teamId) {}
@@ -0,0 +1,31 @@
+package com.easytimeoff.web;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Adds a handler tag (e.g. TeamController.getTeamLeaves) to http.server.requests, so latency
+// histograms can be grouped by controller method as well as by URI template.
+@Component
+public class HandlerTagObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final String HANDLER = "handler";
+    private static final KeyValue NO_HANDLER = KeyValue.of(HANDLER, "none");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return KeyValue.of(HANDLER, method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return NO_HANDLER;
+    }
+}
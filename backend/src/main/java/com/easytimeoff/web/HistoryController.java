@@ -2,8 +2,12 @@ package com.easytimeoff.web;
 
 import com.easytimeoff.domain.ViewHistory;
 import com.easytimeoff.repository.ViewHistoryRepository;
+import com.easytimeoff.service.ViewHistoryBuffer;
+import com.easytimeoff.util.KeysetCursor;
 import com.easytimeoff.util.OffsetBasedPageRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Sort;
@@ -15,42 +19,52 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/history")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, exposedHeaders = KeysetCursor.HEADER)
 @RequiredArgsConstructor
 public class HistoryController {
 
     private final ViewHistoryRepository viewHistoryRepository;
+    private final ViewHistoryBuffer viewHistoryBuffer;
+    private static final int DEFAULT_PAGE_LIMIT = 10;
+    private static final String CURSOR_KIND = "history";
 
     @GetMapping
     public List<HistoryResponse> getByUser(
             @RequestParam(required = false) String userId,
             @RequestParam(required = false) Integer limit,
-            @RequestParam(required = false) Integer offset
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
     ) {
         if (userId == null || userId.isBlank()) {
             return Collections.emptyList();
         }
 
-        if (limit == null) {
-            return viewHistoryRepository.findTop10ByUserIdOrderByTimestampDesc(userId)
-                    .stream()
-                    .map(HistoryController::toResponse)
-                    .collect(Collectors.toList());
+        // Keyset mode: pass an empty cursor for the first page, then echo X-Next-Cursor back
+        if (cursor != null) {
+            return historyAfter(userId, limit, cursor, response);
         }
 
-        if (limit < 1) {
+        int pageSize = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageSize < 1) {
             return Collections.emptyList();
         }
 
+        // Each buffered view can displace at most one stored row, so reading that many extra
+        // rows from the start keeps the merged page exact.
         int safeOffset = offset == null ? 0 : Math.max(0, offset);
-        OffsetBasedPageRequest pageRequest = new OffsetBasedPageRequest(
-                safeOffset,
-                limit,
-                Sort.by(Sort.Direction.DESC, "timestamp")
-        );
-
-        return viewHistoryRepository.findByUserIdOrderByTimestampDesc(userId, pageRequest)
-                .stream()
+        List<ViewHistory> buffered = viewHistoryBuffer.pending(userId);
+        List<ViewHistory> stored = buffered.isEmpty()
+                ? viewHistoryRepository.findByUserIdOrderByTimestampDesc(userId,
+                        new OffsetBasedPageRequest(safeOffset, pageSize, Sort.by(Sort.Direction.DESC, "timestamp", "id")))
+                : viewHistoryRepository.findByUserIdOrderByTimestampDesc(userId,
+                        new OffsetBasedPageRequest(0, safeOffset + pageSize + buffered.size(),
+                                Sort.by(Sort.Direction.DESC, "timestamp", "id")));
+        List<ViewHistory> page = buffered.isEmpty()
+                ? stored
+                : slice(ViewHistoryBuffer.merge(stored, buffered), safeOffset, pageSize);
+
+        return page.stream()
                 .map(HistoryController::toResponse)
                 .collect(Collectors.toList());
     }
@@ -60,6 +74,10 @@ public class HistoryController {
         if (request == null || request.userId() == null || request.itemId() == null || request.type() == null) {
             return ResponseEntity.badRequest().build();
         }
+        // Longer values would not fit the view_history columns.
+        if (tooLong(request.userId()) || tooLong(request.itemId()) || tooLong(request.name())) {
+            return ResponseEntity.badRequest().build();
+        }
 
         ViewHistory.ViewType type;
         try {
@@ -68,19 +86,45 @@ public class HistoryController {
             return ResponseEntity.badRequest().build();
         }
 
-        long now = System.currentTimeMillis();
-        ViewHistory history = viewHistoryRepository.findByUserIdAndItemIdAndType(request.userId(), request.itemId(), type)
-                .orElseGet(() -> ViewHistory.builder()
-                        .userId(request.userId())
-                        .itemId(request.itemId())
-                        .type(type)
-                        .build());
+        return viewHistoryBuffer.record(request.userId(), request.itemId(), type, request.name())
+                .map(recorded -> ResponseEntity.ok(toResponse(recorded)))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > ViewHistory.MAX_TEXT_LENGTH;
+    }
 
-        history.setName(request.name() == null ? "" : request.name());
-        history.setTimestamp(now);
-        ViewHistory saved = viewHistoryRepository.save(history);
+    private List<HistoryResponse> historyAfter(String userId, Integer limit, String cursor, HttpServletResponse response) {
+        KeysetCursor after = KeysetCursor.parse(cursor, CURSOR_KIND, 2);
+        int pageSize = limit == null || limit < 1 ? DEFAULT_PAGE_LIMIT : limit;
+
+        List<ViewHistory> buffered = viewHistoryBuffer.pending(userId).stream()
+                .filter(view -> after == null || view.getTimestamp() < after.longKey(0)
+                        || (view.getTimestamp() == after.longKey(0) && view.getId().compareTo(after.key(1)) < 0))
+                .toList();
+        int fetch = pageSize + buffered.size();
+        List<ViewHistory> stored = after == null
+                ? viewHistoryRepository.findByUserIdOrderByTimestampDesc(userId,
+                        new OffsetBasedPageRequest(0, fetch, Sort.by(Sort.Direction.DESC, "timestamp", "id")))
+                : viewHistoryRepository.findPageAfter(userId, after.longKey(0), after.key(1),
+                        new OffsetBasedPageRequest(0, fetch, Sort.unsorted()));
+        List<ViewHistory> page = slice(ViewHistoryBuffer.merge(stored, buffered), 0, pageSize);
+
+        if (page.size() == pageSize && response != null) {
+            ViewHistory last = page.get(page.size() - 1);
+            response.setHeader(KeysetCursor.HEADER, KeysetCursor.of(CURSOR_KIND, last.getTimestamp(), last.getId()).encode());
+        }
+        return page.stream()
+                .map(HistoryController::toResponse)
+                .collect(Collectors.toList());
+    }
 
-        return ResponseEntity.ok(toResponse(saved));
+    private static List<ViewHistory> slice(List<ViewHistory> views, int offset, int limit) {
+        if (offset >= views.size()) {
+            return List.of();
+        }
+        return views.subList(offset, Math.min(views.size(), offset + limit));
     }
 
     private static HistoryResponse toResponse(ViewHistory history) {
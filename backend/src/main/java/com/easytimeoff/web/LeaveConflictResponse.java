@@ -0,0 +1,33 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.domain.LeaveRecord;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 409 body for a leave that overlaps existing, non-rejected leaves of the same user.
+public record LeaveConflictResponse(
+        String error,
+        String userId,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<Conflict> conflicts
+) {
+    public static final String OVERLAP = "LEAVE_OVERLAP";
+
+    public record Conflict(
+            String id,
+            LocalDate startDate,
+            LocalDate endDate,
+            LeaveRecord.LeaveStatus status,
+            LeaveRecord.DataSource source
+    ) {}
+
+    public static LeaveConflictResponse of(String userId, LocalDate startDate, LocalDate endDate, List<LeaveRecord> leaves) {
+        List<Conflict> conflicts = leaves.stream()
+                .map(leave -> new Conflict(leave.getId(), leave.getStartDate(), leave.getEndDate(),
+                        leave.getStatus(), leave.getSource()))
+                .toList();
+        return new LeaveConflictResponse(OVERLAP, userId, startDate, endDate, conflicts);
+    }
+}
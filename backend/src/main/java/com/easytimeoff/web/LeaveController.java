@@ -2,27 +2,80 @@ package com.easytimeoff.web;
 
 import com.easytimeoff.domain.LeaveRecord;
 import com.easytimeoff.repository.LeaveRepository;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.LeaveCalendarIndex;
+import com.easytimeoff.service.LeaveEventBus;
+import com.easytimeoff.service.LeaveExportService;
+import com.easytimeoff.service.LeaveImportService;
+import com.easytimeoff.service.LeaveOverlapGuard;
+import com.easytimeoff.service.ResourceVersions;
+import com.easytimeoff.util.KeysetCursor;
 import com.easytimeoff.util.OffsetBasedPageRequest;
+import com.easytimeoff.util.RequestIds;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
+@Slf4j
 @RequestMapping("/api/leaves")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}) // Allow React Frontend
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, exposedHeaders = KeysetCursor.HEADER) // Allow React Frontend
 public class LeaveController {
 
     private final LeaveRepository leaveRepository;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final ResourceVersions resourceVersions;
+    private final LeaveOverlapGuard leaveOverlapGuard;
+    private final LeaveImportService leaveImportService;
+    private final LeaveExportService leaveExportService;
+    private final LeaveEventBus leaveEventBus;
+    private final EntityCache entityCache;
+    private final Duration eventStreamTimeout;
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final String CURSOR_KIND = "leaves";
 
     @Autowired
-    public LeaveController(LeaveRepository leaveRepository) {
+    public LeaveController(
+            LeaveRepository leaveRepository,
+            LeaveCalendarIndex leaveCalendarIndex,
+            ResourceVersions resourceVersions,
+            LeaveOverlapGuard leaveOverlapGuard,
+            LeaveImportService leaveImportService,
+            LeaveExportService leaveExportService,
+            LeaveEventBus leaveEventBus,
+            EntityCache entityCache,
+            @Value("${app.leave-events.timeout:30m}") Duration eventStreamTimeout
+    ) {
         this.leaveRepository = leaveRepository;
+        this.leaveCalendarIndex = leaveCalendarIndex;
+        this.resourceVersions = resourceVersions;
+        this.leaveOverlapGuard = leaveOverlapGuard;
+        this.leaveImportService = leaveImportService;
+        this.leaveExportService = leaveExportService;
+        this.leaveEventBus = leaveEventBus;
+        this.entityCache = entityCache;
+        this.eventStreamTimeout = eventStreamTimeout;
     }
 
     @GetMapping
@@ -31,8 +84,14 @@ public class LeaveController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(required = false) Integer limit,
-            @RequestParam(required = false) Integer offset
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
     ) {
+        // Keyset mode: pass an empty cursor for the first page, then echo X-Next-Cursor back
+        if (cursor != null) {
+            return leavesAfter(userIds, from, to, limit, cursor, response);
+        }
         Pageable pageRequest = pageRequest(limit, offset, Sort.by("startDate").descending());
         // Support fetching leaves for specific users (Team View)
         if (userIds != null && !userIds.isEmpty()) {
@@ -45,6 +104,89 @@ public class LeaveController {
         return leaveRepository.findAll();
     }
 
+    // Full or filtered dump as NDJSON (default) or CSV (format=csv or Accept: text/csv), streamed
+    // from a database cursor straight to the response, so any number of rows fits in constant memory.
+    @GetMapping("/export")
+    public void exportLeaves(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) LeaveRecord.LeaveStatus status,
+            @RequestParam(required = false) LeaveRecord.DataSource source,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        LeaveImportService.Format resolved = LeaveImportService.Format.resolve(format, request.getHeader("Accept"));
+        if (resolved == null) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        boolean csv = resolved == LeaveImportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"leaves." + (csv ? "csv" : "ndjson") + "\"");
+        leaveExportService.export(new LeaveExportService.Filter(from, to, status, source), resolved, response.getOutputStream());
+    }
+
+    // Server-sent events for leaves of the given teams, pods and users (members are resolved when
+    // subscribing): "created", "updated" and "deleted" events carrying the leave as JSON, plus
+    // comment heartbeats. A client that falls behind is disconnected; EventSource reconnects and
+    // should refetch the visible range, as events missed while away are not replayed.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> leaveEvents(
+            @RequestParam(required = false) List<String> teamIds,
+            @RequestParam(required = false) List<String> podIds,
+            @RequestParam(required = false) List<String> userIds
+    ) {
+        Set<String> watched = new LinkedHashSet<>();
+        if (teamIds != null) {
+            RequestIds.normalize(teamIds).forEach(id -> entityCache.getTeam(id).ifPresent(team -> watched.addAll(team.getMemberIds())));
+        }
+        if (podIds != null) {
+            RequestIds.normalize(podIds).forEach(id -> entityCache.getPod(id).ifPresent(pod -> watched.addAll(pod.getMemberIds())));
+        }
+        if (userIds != null) {
+            watched.addAll(RequestIds.normalize(userIds));
+        }
+        if (watched.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(eventStreamTimeout.toMillis());
+        return leaveEventBus.subscribe(watched, new LeaveEventBus.Sink() {
+                    @Override
+                    public void send(LeaveEventBus.LeaveEvent event) throws IOException {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.sequence()))
+                                .name(event.type().label())
+                                .data(event.leave(), MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void heartbeat() throws IOException {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+
+                    @Override
+                    public void close(boolean slow) {
+                        emitter.complete();
+                    }
+                })
+                .map(subscription -> {
+                    emitter.onCompletion(() -> leaveEventBus.unsubscribe(subscription));
+                    emitter.onTimeout(() -> leaveEventBus.unsubscribe(subscription));
+                    emitter.onError(error -> leaveEventBus.unsubscribe(subscription));
+                    return ResponseEntity.ok()
+                            .header("Cache-Control", "no-cache")
+                            .header("X-Accel-Buffering", "no") // keep reverse proxies from buffering the stream
+                            .body(emitter);
+                })
+                .orElseGet(() -> {
+                    log.warn("Rejecting leave event subscription: subscriber limit reached.");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                });
+    }
+
     @GetMapping("/user/{userId}")
     public List<LeaveRecord> getLeavesByUser(
             @PathVariable String userId,
@@ -59,38 +201,132 @@ public class LeaveController {
     }
 
     @PostMapping
-    public ResponseEntity<LeaveRecord> createLeave(@RequestBody LeaveRecord leave) {
+    public ResponseEntity<?> createLeave(@RequestBody LeaveRecord leave) {
         // Simple validation logic
-        if (leave.getStartDate().isAfter(leave.getEndDate())) {
+        if (leave.getUserId() == null || leave.getStartDate() == null || leave.getEndDate() == null
+                || leave.getStartDate().isAfter(leave.getEndDate())) {
             return ResponseEntity.badRequest().build();
         }
-        
-        // In a real app, we would check for overlaps here using repository.findOverlappingLeaves
-        
-        LeaveRecord saved = leaveRepository.save(leave);
-        return ResponseEntity.ok(saved);
+
+        // Check and write under the user's lock so concurrent submissions cannot both pass
+        return leaveOverlapGuard.withUserLock(leave.getUserId(), () -> {
+            List<LeaveRecord> conflicts = leaveOverlapGuard.findConflicts(
+                    leave.getUserId(), leave.getStartDate(), leave.getEndDate(), null);
+            if (!conflicts.isEmpty()) {
+                return conflict(leave.getUserId(), leave.getStartDate(), leave.getEndDate(), conflicts);
+            }
+            LeaveRecord saved = leaveRepository.save(leave);
+            leaveCalendarIndex.upsert(saved);
+            resourceVersions.leavesChanged(saved.getUserId());
+            leaveEventBus.created(saved);
+            return ResponseEntity.ok(saved);
+        });
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<LeaveRecord> updateLeave(@PathVariable String id, @RequestBody LeaveRecord details) {
+    public ResponseEntity<?> updateLeave(@PathVariable String id, @RequestBody LeaveRecord details) {
+        if (details.getStartDate() == null || details.getEndDate() == null
+                || details.getStartDate().isAfter(details.getEndDate())) {
+            return ResponseEntity.badRequest().build();
+        }
         return leaveRepository.findById(id)
-                .map(existing -> {
+                .<ResponseEntity<?>>map(existing -> leaveOverlapGuard.withUserLock(existing.getUserId(), () -> {
+                    List<LeaveRecord> conflicts = leaveOverlapGuard.findConflicts(
+                            existing.getUserId(), details.getStartDate(), details.getEndDate(), id);
+                    if (!conflicts.isEmpty()) {
+                        return conflict(existing.getUserId(), details.getStartDate(), details.getEndDate(), conflicts);
+                    }
                     existing.setStartDate(details.getStartDate());
                     existing.setEndDate(details.getEndDate());
                     existing.setNote(details.getNote());
                     existing.setStatus(LeaveRecord.LeaveStatus.PENDING); // Reset status on edit
-                    return ResponseEntity.ok(leaveRepository.save(existing));
-                })
+                    LeaveRecord saved = leaveRepository.save(existing);
+                    leaveCalendarIndex.upsert(saved);
+                    resourceVersions.leavesChanged(saved.getUserId());
+                    leaveEventBus.updated(saved);
+                    return ResponseEntity.ok(saved);
+                }))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Bulk upsert from an HR/Outlook feed: NDJSON (one leave object per line) or CSV with a header
+    // row (externalId,userId,startDate,endDate[,status][,note]). Rows are keyed by source + externalId;
+    // rows with an id (as /export writes them) are keyed by that id and keep their own source.
+    @PostMapping("/import")
+    public ResponseEntity<LeaveImportService.ImportReport> importLeaves(
+            @RequestParam LeaveRecord.DataSource source,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request
+    ) throws IOException {
+        LeaveImportService.Format resolved = LeaveImportService.Format.resolve(format, request.getContentType());
+        if (resolved == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Charset charset = request.getCharacterEncoding() == null
+                ? StandardCharsets.UTF_8
+                : Charset.forName(request.getCharacterEncoding());
+        try (Reader body = new InputStreamReader(request.getInputStream(), charset)) {
+            return ResponseEntity.ok(leaveImportService.importLeaves(body, resolved, source));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLeave(@PathVariable String id) {
-        if (leaveRepository.existsById(id)) {
-            leaveRepository.deleteById(id);
-            return ResponseEntity.ok().build();
+        return leaveRepository.findById(id)
+                .map(existing -> {
+                    leaveRepository.delete(existing);
+                    leaveCalendarIndex.remove(existing);
+                    resourceVersions.leavesChanged(existing.getUserId());
+                    leaveEventBus.deleted(existing);
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private List<LeaveRecord> leavesAfter(
+            List<String> userIds,
+            LocalDate from,
+            LocalDate to,
+            Integer limit,
+            String cursor,
+            HttpServletResponse response
+    ) {
+        KeysetCursor after = KeysetCursor.parse(cursor, CURSOR_KIND, 2);
+        int pageSize = limit == null || limit < 1 ? DEFAULT_PAGE_LIMIT : limit;
+        LocalDate afterStart = after == null ? null : after.dateKey(0);
+        String afterId = after == null ? null : after.key(1);
+
+        List<LeaveRecord> page;
+        if (userIds != null && !userIds.isEmpty()) {
+            page = after == null
+                    ? leaveRepository.findFirstPageByUserIdInAndDateRange(
+                            userIds, from, to, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()))
+                    : leaveRepository.findByUserIdInAndDateRangeAfter(
+                            userIds, from, to, afterStart, afterId, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()));
+        } else if (after == null) {
+            page = leaveRepository.findAllBy(new OffsetBasedPageRequest(0, pageSize,
+                    Sort.by(Sort.Direction.DESC, "startDate", "id")));
+        } else {
+            page = leaveRepository.findPageAfter(afterStart, afterId, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()));
         }
-        return ResponseEntity.notFound().build();
+
+        if (page.size() == pageSize && response != null) {
+            LeaveRecord last = page.get(page.size() - 1);
+            response.setHeader(KeysetCursor.HEADER, KeysetCursor.of(CURSOR_KIND, last.getStartDate(), last.getId()).encode());
+        }
+        return page;
+    }
+
+    private static ResponseEntity<LeaveConflictResponse> conflict(
+            String userId,
+            LocalDate startDate,
+            LocalDate endDate,
+            List<LeaveRecord> conflicts
+    ) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(LeaveConflictResponse.of(userId, startDate, endDate, conflicts));
     }
 
     private Pageable pageRequest(Integer limit, Integer offset, Sort sort) {
@@ -3,22 +3,25 @@ package com.easytimeoff.web;
 import com.easytimeoff.domain.LeaveRecord;
 import com.easytimeoff.domain.Pod;
 import com.easytimeoff.domain.User;
-import com.easytimeoff.repository.LeaveRepository;
 import com.easytimeoff.repository.PodRepository;
-import com.easytimeoff.repository.UserRepository;
+import com.easytimeoff.repository.PodSummary;
+import com.easytimeoff.service.AvailabilityService;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.LeaveCalendarIndex;
+import com.easytimeoff.service.QueryFanOut;
+import com.easytimeoff.service.ResourceVersions;
 import com.easytimeoff.util.OffsetBasedPageRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/pods")
@@ -27,8 +30,11 @@ import java.util.stream.Collectors;
 public class PodController {
 
     private final PodRepository podRepository;
-    private final UserRepository userRepository;
-    private final LeaveRepository leaveRepository;
+    private final EntityCache entityCache;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final AvailabilityService availabilityService;
+    private final ResourceVersions resourceVersions;
+    private final QueryFanOut queryFanOut;
     private static final int DEFAULT_SEARCH_LIMIT = 20;
 
     @GetMapping
@@ -51,46 +57,78 @@ public class PodController {
         return podRepository.findAll();
     }
 
+    // Member counts instead of member sets: one aggregate query for the whole list.
+    @GetMapping("/summaries")
+    public List<PodSummary> getSummaries(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset
+    ) {
+        boolean hasQuery = query != null && !query.isEmpty();
+        Integer pageLimit = limit == null && hasQuery ? Integer.valueOf(DEFAULT_SEARCH_LIMIT) : limit;
+        Pageable pageRequest = pageRequest(pageLimit, offset, Sort.unsorted());
+        return podRepository.findSummaries(hasQuery ? query : null, pageRequest == null ? Pageable.unpaged() : pageRequest);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Pod> getById(@PathVariable String id) {
-        return podRepository.findById(id)
+        return entityCache.getPod(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}/leaves")
-    public ResponseEntity<List<UserLeavesResponse>> getPodLeaves(
+    public ResponseEntity<?> getPodLeaves(
             @PathVariable String id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format,
+            WebRequest request
     ) {
-        return podRepository.findById(id)
-                .map(pod -> {
+        String etag = resourceVersions.etag(ResourceVersions.Kind.POD, id);
+        if (request != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        boolean compact = "compact".equalsIgnoreCase(format);
+        return entityCache.getPod(id)
+                .<ResponseEntity<?>>map(pod -> {
                     List<String> memberIds = pod.getMemberIds().stream().toList();
                     if (memberIds.isEmpty()) {
-                        return ResponseEntity.ok(Collections.<UserLeavesResponse>emptyList());
+                        return compact
+                                ? ResponseEntity.ok().eTag(etag).body(CompactLeavesResponse.of(List.of(), List.of()))
+                                : ResponseEntity.ok().eTag(etag).body(Collections.<UserLeavesResponse>emptyList());
                     }
 
-                    List<User> members = userRepository.findAllById(memberIds);
-                    List<LeaveRecord> leaves = leaveRepository.findByUserIdInAndDateRange(
-                            memberIds,
-                            from,
-                            to,
-                            Pageable.unpaged()
-                    ).getContent();
-
-                    Map<String, List<LeaveRecord>> leavesByUser = leaves.stream()
-                            .collect(Collectors.groupingBy(LeaveRecord::getUserId));
-
-                    List<UserLeavesResponse> payload = members.stream()
-                            .map(user -> new UserLeavesResponse(user, leavesByUser.getOrDefault(user.getId(), List.of())))
-                            .collect(Collectors.toList());
+                    // Members and leaves are independent reads: fetch them concurrently.
+                    QueryFanOut.Both<List<User>, List<LeaveRecord>> fetched = queryFanOut.both(
+                            () -> entityCache.getUsers(memberIds),
+                            () -> leaveCalendarIndex.findLeaves(memberIds, from, to));
+                    List<User> members = fetched.first();
+                    List<LeaveRecord> leaves = fetched.second();
+                    if (compact) {
+                        return ResponseEntity.ok().eTag(etag).body(CompactLeavesResponse.of(members, leaves));
+                    }
 
-                    return ResponseEntity.ok(payload);
+                    return ResponseEntity.ok().eTag(etag).body(UserLeavesResponse.of(members, leaves));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityResponse> getPodAvailability(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (!AvailabilityService.isValidWindow(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return entityCache.getPod(id)
+                .map(pod -> ResponseEntity.ok(AvailabilityResponse.of(
+                        availabilityService.compute(pod.getMemberIds(), from, to))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     private Pageable pageRequest(Integer limit, Integer offset, Sort sort) {
         if (limit == null || limit < 1) {
             return null;
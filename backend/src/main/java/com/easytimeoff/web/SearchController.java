@@ -0,0 +1,54 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import com.easytimeoff.service.GroupTypeaheadIndex;
+import com.easytimeoff.service.GroupTypeaheadIndex.GroupHit;
+import com.easytimeoff.service.GroupTypeaheadIndex.GroupKind;
+import com.easytimeoff.util.OffsetBasedPageRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final GroupTypeaheadIndex groupTypeaheadIndex;
+    private final TeamRepository teamRepository;
+    private final PodRepository podRepository;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    // Mixed TEAM/POD typeahead for the shared group search box.
+    @GetMapping("/groups")
+    public List<GroupHit> searchGroups(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (q == null || q.isBlank()) {
+            return List.of();
+        }
+        int safeLimit = limit == null || limit < 1 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        if (groupTypeaheadIndex.isReady()) {
+            return groupTypeaheadIndex.search(q, safeLimit);
+        }
+
+        Pageable page = new OffsetBasedPageRequest(0, safeLimit, Sort.by("name").ascending());
+        Stream<GroupHit> teams = teamRepository.findByNameContainingIgnoreCase(q.trim(), page).stream()
+                .map(team -> new GroupHit(team.getId(), team.getName(), GroupKind.TEAM));
+        Stream<GroupHit> pods = podRepository.findByNameContainingIgnoreCase(q.trim(), page).stream()
+                .map(pod -> new GroupHit(pod.getId(), pod.getName(), GroupKind.POD));
+        return Stream.concat(teams, pods)
+                .sorted(Comparator.comparing(GroupHit::name, String.CASE_INSENSITIVE_ORDER))
+                .limit(safeLimit)
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.util.RequestQueryStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+// Adds a Server-Timing header to every /api response, e.g.
+//   Server-Timing: db;dur=3.21;desc="4 queries", ser;dur=0.52, total;dur=7.90
+// db is the time spent executing JDBC statements for the request (see QueryCountingDataSource),
+// ser the time spent serializing the JSON body (TimedJsonHttpMessageConverter; left out for bodies
+// too large to buffer, which are streamed) and total the time until the response was committed. The header is set just before the body is written,
+// because it cannot be added once the response is committed.
+@Component
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        TimingResponse timed = new TimingResponse(response, stats);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            RequestQueryStats.clear();
+            // Responses without a body never reached getOutputStream/getWriter.
+            timed.addHeader();
+        }
+    }
+
+    static String format(RequestQueryStats stats) {
+        if (stats.serializationStreamed()) {
+            return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d queries\", total;dur=%.2f",
+                    stats.dbNanos() / 1e6, stats.queries(), stats.elapsedNanos() / 1e6);
+        }
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d queries\", ser;dur=%.2f, total;dur=%.2f",
+                stats.dbNanos() / 1e6, stats.queries(), stats.serializationNanos() / 1e6, stats.elapsedNanos() / 1e6);
+    }
+
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+        private final RequestQueryStats stats;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, RequestQueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void addHeader() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!added && !response.isCommitted()) {
+                added = true;
+                response.setHeader(HEADER, format(stats));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.service.LeaveSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final LeaveSyncService leaveSyncService;
+
+    @GetMapping
+    public List<LeaveSyncService.SourceStatus> getAll() {
+        return leaveSyncService.status();
+    }
+
+    // Runs a source immediately from its stored watermark; 409 while a run is already in progress.
+    @PostMapping("/{name}/run")
+    public ResponseEntity<LeaveSyncService.SyncRun> run(@PathVariable String name) {
+        if (!leaveSyncService.isRegistered(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return leaveSyncService.run(name)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
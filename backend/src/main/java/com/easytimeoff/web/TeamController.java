@@ -3,23 +3,26 @@ package com.easytimeoff.web;
 import com.easytimeoff.domain.LeaveRecord;
 import com.easytimeoff.domain.Team;
 import com.easytimeoff.domain.User;
-import com.easytimeoff.repository.LeaveRepository;
 import com.easytimeoff.repository.TeamRepository;
-import com.easytimeoff.repository.UserRepository;
+import com.easytimeoff.repository.TeamSummary;
+import com.easytimeoff.service.AvailabilityService;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.LeaveCalendarIndex;
+import com.easytimeoff.service.QueryFanOut;
+import com.easytimeoff.service.ResourceVersions;
 import com.easytimeoff.util.OffsetBasedPageRequest;
+import com.easytimeoff.util.RequestIds;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -28,8 +31,11 @@ import java.util.stream.Collectors;
 public class TeamController {
 
     private final TeamRepository teamRepository;
-    private final UserRepository userRepository;
-    private final LeaveRepository leaveRepository;
+    private final EntityCache entityCache;
+    private final LeaveCalendarIndex leaveCalendarIndex;
+    private final AvailabilityService availabilityService;
+    private final ResourceVersions resourceVersions;
+    private final QueryFanOut queryFanOut;
     private static final int DEFAULT_SEARCH_LIMIT = 20;
 
     @GetMapping
@@ -42,8 +48,8 @@ public class TeamController {
             @RequestParam(required = false) Integer offset
     ) {
         if (ids != null && !ids.isEmpty()) {
-            List<String> resolvedIds = normalizeIds(ids);
-            return teamRepository.findAllById(resolvedIds);
+            List<String> resolvedIds = RequestIds.normalize(ids);
+            return entityCache.getTeams(resolvedIds);
         }
 
         Pageable pageRequest = pageRequest(limit, offset, Sort.by("name").ascending());
@@ -78,9 +84,29 @@ public class TeamController {
         return teamRepository.findAll();
     }
 
+    // Member counts instead of member sets: one aggregate query for the whole list.
+    @GetMapping("/summaries")
+    public List<TeamSummary> getSummaries(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String createdBy,
+            @RequestParam(required = false) Team.TeamType type,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset
+    ) {
+        boolean hasQuery = query != null && !query.isEmpty();
+        Integer pageLimit = limit == null && hasQuery ? Integer.valueOf(DEFAULT_SEARCH_LIMIT) : limit;
+        Pageable pageRequest = pageRequest(pageLimit, offset, Sort.unsorted());
+        return teamRepository.findSummaries(
+                type,
+                createdBy == null || createdBy.isEmpty() ? null : createdBy,
+                hasQuery ? query : null,
+                pageRequest == null ? Pageable.unpaged() : pageRequest
+        );
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Team> getById(@PathVariable String id) {
-        return teamRepository.findById(id)
+        return entityCache.getTeam(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -89,48 +115,73 @@ public class TeamController {
     public Team create(@RequestBody Team team) {
         // ID is auto-generated in real DB, but we allow FE to send mock IDs if needed, 
         // strictly for this prototype phase.
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        // Member-only changes do not always fire the entity listener, so drop the cached copy here too.
+        entityCache.invalidateTeam(saved.getId());
+        resourceVersions.bump(ResourceVersions.Kind.TEAM, saved.getId());
+        return saved;
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable String id) {
         teamRepository.deleteById(id);
+        entityCache.invalidateTeam(id);
+        resourceVersions.bump(ResourceVersions.Kind.TEAM, id);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/{id}/leaves")
-    public ResponseEntity<List<UserLeavesResponse>> getTeamLeaves(
+    public ResponseEntity<?> getTeamLeaves(
             @PathVariable String id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format,
+            WebRequest request
     ) {
-        return teamRepository.findById(id)
-                .map(team -> {
+        String etag = resourceVersions.etag(ResourceVersions.Kind.TEAM, id);
+        if (request != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        boolean compact = "compact".equalsIgnoreCase(format);
+        return entityCache.getTeam(id)
+                .<ResponseEntity<?>>map(team -> {
                     List<String> memberIds = team.getMemberIds().stream().toList();
                     if (memberIds.isEmpty()) {
-                        return ResponseEntity.ok(Collections.<UserLeavesResponse>emptyList());
+                        return compact
+                                ? ResponseEntity.ok().eTag(etag).body(CompactLeavesResponse.of(List.of(), List.of()))
+                                : ResponseEntity.ok().eTag(etag).body(Collections.<UserLeavesResponse>emptyList());
                     }
 
-                    List<User> members = userRepository.findAllById(memberIds);
-                    List<LeaveRecord> leaves = leaveRepository.findByUserIdInAndDateRange(
-                            memberIds,
-                            from,
-                            to,
-                            Pageable.unpaged()
-                    ).getContent();
-
-                    Map<String, List<LeaveRecord>> leavesByUser = leaves.stream()
-                            .collect(Collectors.groupingBy(LeaveRecord::getUserId));
-
-                    List<UserLeavesResponse> payload = members.stream()
-                            .map(user -> new UserLeavesResponse(user, leavesByUser.getOrDefault(user.getId(), List.of())))
-                            .collect(Collectors.toList());
+                    // Members and leaves are independent reads: fetch them concurrently.
+                    QueryFanOut.Both<List<User>, List<LeaveRecord>> fetched = queryFanOut.both(
+                            () -> entityCache.getUsers(memberIds),
+                            () -> leaveCalendarIndex.findLeaves(memberIds, from, to));
+                    List<User> members = fetched.first();
+                    List<LeaveRecord> leaves = fetched.second();
+                    if (compact) {
+                        return ResponseEntity.ok().eTag(etag).body(CompactLeavesResponse.of(members, leaves));
+                    }
 
-                    return ResponseEntity.ok(payload);
+                    return ResponseEntity.ok().eTag(etag).body(UserLeavesResponse.of(members, leaves));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityResponse> getTeamAvailability(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (!AvailabilityService.isValidWindow(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return entityCache.getTeam(id)
+                .map(team -> ResponseEntity.ok(AvailabilityResponse.of(
+                        availabilityService.compute(team.getMemberIds(), from, to))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     private Pageable pageRequest(Integer limit, Integer offset, Sort sort) {
         if (limit == null || limit < 1) {
             return null;
@@ -138,14 +189,4 @@ public class TeamController {
         int safeOffset = offset == null ? 0 : Math.max(0, offset);
         return new OffsetBasedPageRequest(safeOffset, limit, sort);
     }
-
-    private List<String> normalizeIds(List<String> ids) {
-        if (ids.size() == 1 && ids.get(0) != null && ids.get(0).contains(",")) {
-            return Arrays.stream(ids.get(0).split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .toList();
-        }
-        return ids;
-    }
 }
@@ -0,0 +1,116 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.util.RequestQueryStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+// Replaces Spring Boot's Jackson converter (same ObjectMapper). During a request it serializes
+// the body into memory first, so the time spent in Jackson can be reported in Server-Timing
+// before the header is committed. Only the first app.server-timing.buffer-limit bytes are held:
+// a larger body is streamed from then on and its Server-Timing has no ser entry, so big list
+// responses never sit in the heap twice. Outside a request it writes straight through.
+@Component
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final int bufferLimit;
+
+    public TimedJsonHttpMessageConverter(
+            ObjectMapper objectMapper,
+            @Value("${app.server-timing.buffer-limit:65536}") int bufferLimit
+    ) {
+        super(objectMapper);
+        this.bufferLimit = Math.max(0, bufferLimit);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        SpillingOutputStream body = new SpillingOutputStream(outputMessage, stats, bufferLimit);
+        long started = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        if (body.spilled()) {
+            return;
+        }
+        stats.recordSerialization(System.nanoTime() - started);
+        body.writeBuffered();
+    }
+
+    // Holds up to limit bytes; past that, commits the response and passes everything through.
+    private static final class SpillingOutputStream extends OutputStream {
+        private final HttpOutputMessage target;
+        private final RequestQueryStats stats;
+        private final int limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        private OutputStream out;
+
+        SpillingOutputStream(HttpOutputMessage target, RequestQueryStats stats, int limit) {
+            this.target = target;
+            this.stats = stats;
+            this.limit = limit;
+        }
+
+        boolean spilled() {
+            return out != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (out == null && buffer.size() + length > limit) {
+                // Must be marked before the body is opened: that is when the header is written.
+                stats.markSerializationStreamed();
+                out = target.getBody();
+                buffer.writeTo(out);
+                buffer = null;
+            }
+            if (out != null) {
+                out.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        void writeBuffered() throws IOException {
+            target.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(target.getBody());
+        }
+    }
+}
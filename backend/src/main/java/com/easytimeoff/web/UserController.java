@@ -2,40 +2,66 @@ package com.easytimeoff.web;
 
 import com.easytimeoff.domain.User;
 import com.easytimeoff.repository.UserRepository;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.ResourceVersions;
+import com.easytimeoff.service.UserSearchIndex;
+import com.easytimeoff.util.KeysetCursor;
 import com.easytimeoff.util.OffsetBasedPageRequest;
+import com.easytimeoff.util.RequestIds;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Arrays;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, exposedHeaders = KeysetCursor.HEADER)
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final EntityCache entityCache;
+    private final ResourceVersions resourceVersions;
     private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final String CURSOR_KIND = "users";
+    private static final String RANKED_CURSOR_KIND = "users-ranked";
 
     @GetMapping
     public List<User> search(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) List<String> ids,
             @RequestParam(required = false) Integer limit,
-            @RequestParam(required = false) Integer offset) {
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
         
         // Batch fetch by IDs (for Team Views)
         if (ids != null && !ids.isEmpty()) {
-            List<String> resolvedIds = normalizeIds(ids);
-            return userRepository.findAllById(resolvedIds);
+            List<String> resolvedIds = RequestIds.normalize(ids);
+            return entityCache.getUsers(resolvedIds);
+        }
+
+        // Keyset mode: pass an empty cursor for the first page, then echo X-Next-Cursor back
+        if (cursor != null) {
+            int pageSize = limit == null || limit < 1 ? DEFAULT_SEARCH_LIMIT : limit;
+            if (query != null && !query.isEmpty() && userSearchIndex.isReady()) {
+                return rankedSearchAfter(query, pageSize, cursor, response);
+            }
+            return usersAfter(query, pageSize, cursor, response);
         }
 
         // Search by displayName/email/employeeID
         if (query != null && !query.isEmpty()) {
+            if (userSearchIndex.isReady()) {
+                int safeOffset = offset == null ? 0 : Math.max(0, offset);
+                return userSearchIndex.search(query, safeOffset, limit == null ? DEFAULT_SEARCH_LIMIT : limit);
+            }
             Pageable pageRequest = pageRequest(limit == null ? DEFAULT_SEARCH_LIMIT : limit, offset, Sort.by("displayName").ascending());
             if (pageRequest != null) {
                 return userRepository.search(query, pageRequest).getContent();
@@ -51,9 +77,13 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getById(@PathVariable String id) {
-        return userRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<User> getById(@PathVariable String id, WebRequest request) {
+        String etag = resourceVersions.etag(ResourceVersions.Kind.USER, id);
+        if (request != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return entityCache.getUser(id)
+                .map(user -> ResponseEntity.ok().eTag(etag).body(user))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -65,6 +95,44 @@ public class UserController {
         return ResponseEntity.ok(users.get(0));
     }
 
+    private List<User> rankedSearchAfter(String query, int pageSize, String cursor, HttpServletResponse response) {
+        KeysetCursor after = KeysetCursor.parse(cursor, RANKED_CURSOR_KIND, 3);
+        UserSearchIndex.Position position = after == null
+                ? null
+                : new UserSearchIndex.Position(after.intKey(0), after.key(1), after.key(2));
+        UserSearchIndex.Page page = userSearchIndex.searchAfter(query, position, pageSize);
+        if (page.users().size() == pageSize && response != null) {
+            UserSearchIndex.Position last = page.last();
+            response.setHeader(KeysetCursor.HEADER,
+                    KeysetCursor.of(RANKED_CURSOR_KIND, last.score(), last.name(), last.userId()).encode());
+        }
+        return page.users();
+    }
+
+    private List<User> usersAfter(String query, int pageSize, String cursor, HttpServletResponse response) {
+        KeysetCursor after = KeysetCursor.parse(cursor, CURSOR_KIND, 2);
+        String afterName = after == null ? null : after.key(0);
+        String afterId = after == null ? null : after.key(1);
+
+        List<User> page;
+        if (query != null && !query.isEmpty()) {
+            page = after == null
+                    ? userRepository.searchFirstPage(query, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()))
+                    : userRepository.searchPageAfter(query, afterName, afterId, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()));
+        } else if (after == null) {
+            page = userRepository.findAllBy(new OffsetBasedPageRequest(0, pageSize,
+                    Sort.by(Sort.Direction.ASC, "displayName", "id")));
+        } else {
+            page = userRepository.findPageAfter(afterName, afterId, new OffsetBasedPageRequest(0, pageSize, Sort.unsorted()));
+        }
+
+        if (page.size() == pageSize && response != null) {
+            User last = page.get(page.size() - 1);
+            response.setHeader(KeysetCursor.HEADER, KeysetCursor.of(CURSOR_KIND, last.getDisplayName(), last.getId()).encode());
+        }
+        return page;
+    }
+
     private Pageable pageRequest(Integer limit, Integer offset, Sort sort) {
         if (limit == null || limit < 1) {
             return null;
@@ -72,14 +140,4 @@ public class UserController {
         int safeOffset = offset == null ? 0 : Math.max(0, offset);
         return new OffsetBasedPageRequest(safeOffset, limit, sort);
     }
-
-    private List<String> normalizeIds(List<String> ids) {
-        if (ids.size() == 1 && ids.get(0) != null && ids.get(0).contains(",")) {
-            return Arrays.stream(ids.get(0).split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .toList();
-        }
-        return ids;
-    }
 }
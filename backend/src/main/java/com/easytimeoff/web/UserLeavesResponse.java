@@ -4,5 +4,18 @@ import com.easytimeoff.domain.LeaveRecord;
 import com.easytimeoff.domain.User;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-public record UserLeavesResponse(User user, List<LeaveRecord> leaves) {}
+public record UserLeavesResponse(User user, List<LeaveRecord> leaves) {
+
+    // One entry per member, in member order, each with that member's leaves.
+    public static List<UserLeavesResponse> of(List<User> members, List<LeaveRecord> leaves) {
+        Map<String, List<LeaveRecord>> leavesByUser = leaves.stream()
+                .collect(Collectors.groupingBy(LeaveRecord::getUserId));
+
+        return members.stream()
+                .map(user -> new UserLeavesResponse(user, leavesByUser.getOrDefault(user.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
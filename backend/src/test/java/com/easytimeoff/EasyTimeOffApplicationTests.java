@@ -1,22 +1,133 @@
 package com.easytimeoff;
 
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
 import com.easytimeoff.domain.User;
+import com.easytimeoff.domain.ViewHistory;
+import com.easytimeoff.repository.FavoriteTeamRepository;
+import com.easytimeoff.repository.LeaveRepository;
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import com.easytimeoff.repository.ViewHistoryRepository;
+import com.easytimeoff.util.KeysetCursor;
+import com.easytimeoff.service.AvailabilityService;
+import com.easytimeoff.service.EntityCache;
+import com.easytimeoff.service.FavoritesCache;
+import com.easytimeoff.service.LeaveEventBus;
+import com.easytimeoff.service.LeaveImportService;
+import com.easytimeoff.service.LeaveSyncService;
+import com.easytimeoff.service.LeaveSyncSource;
+import com.easytimeoff.service.ViewHistoryBuffer;
+import com.easytimeoff.web.AvailabilityResponse;
+import com.easytimeoff.web.CompactLeavesResponse;
+import com.easytimeoff.web.FavoriteController;
+import com.easytimeoff.web.HistoryController;
+import com.easytimeoff.web.LeaveConflictResponse;
+import com.easytimeoff.web.LeaveController;
+import com.easytimeoff.web.TeamController;
 import com.easytimeoff.web.UserController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class EasyTimeOffApplicationTests {
 
     @Autowired
     private UserController userController;
 
+    @Autowired
+    private LeaveController leaveController;
+
+    @Autowired
+    private TeamController teamController;
+
+    @Autowired
+    private LeaveImportService leaveImportService;
+
+    @Autowired
+    private LeaveSyncService leaveSyncService;
+
+    @Autowired
+    private HistoryController historyController;
+
+    @Autowired
+    private ViewHistoryBuffer viewHistoryBuffer;
+
+    @Autowired
+    private ViewHistoryRepository viewHistoryRepository;
+
+    @Autowired
+    private FavoriteController favoriteController;
+
+    @Autowired
+    private FavoriteTeamRepository favoriteTeamRepository;
+
+    @Autowired
+    private FavoritesCache favoritesCache;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PodRepository podRepository;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LeaveEventBus leaveEventBus;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
         assertThat(userController).isNotNull();
@@ -25,8 +136,8 @@ class EasyTimeOffApplicationTests {
     @Test
     void testDataSeedingAndSearch() {
         // The DataInitializer should have run and populated the DB.
-        // search accepts (String query, List<String> ids, Integer limit, Integer offset).
-        List<User> users = userController.search(null, null, null, null);
+        // search accepts (String query, List<String> ids, Integer limit, Integer offset, String cursor, HttpServletResponse).
+        List<User> users = userController.search(null, null, null, null, null, null);
         
         assertThat(users).isNotEmpty();
         assertThat(users).extracting(User::getDisplayName).contains("Alice Chen", "Bob Smith");
@@ -38,8 +149,653 @@ class EasyTimeOffApplicationTests {
         
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(response.getBody()).isNotNull();
-        List<User> users = userController.search(null, null, null, null);
+        List<User> users = userController.search(null, null, null, null, null, null);
         assertThat(users).isNotEmpty();
         assertThat(users).extracting(User::getId).contains(response.getBody().getId());
     }
+
+    @Test
+    void testKeysetPaginationWalksAllUsers() {
+        List<User> all = userController.search(null, null, null, null, null, null);
+        List<String> walked = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            userController.search(null, null, 2, null, cursor, response).forEach(u -> walked.add(u.getId()));
+            cursor = response.getHeader(KeysetCursor.HEADER);
+        }
+
+        assertThat(walked).doesNotHaveDuplicates().hasSameSizeAs(all);
+    }
+
+    @Test
+    void testBusinessDayUsageRejectsOutOfRangeYears() throws Exception {
+        mockMvc.perform(get("/api/business-days/usage").param("podId", "pod1").param("year", "2026"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/business-days/usage").param("podId", "pod1").param("year", "1000000000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/business-days/usage").param("podId", "pod1").param("year", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testKeysetPaginationWalksAllLeaves() {
+        for (List<String> userIds : java.util.Arrays.asList(null, List.of("u1", "u2", "u3", "u4", "u5"))) {
+            List<LeaveRecord> all = leaveController.getAllLeaves(userIds, null, null, null, null, null, null);
+            List<String> walked = new ArrayList<>();
+            String cursor = "";
+            while (cursor != null) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                leaveController.getAllLeaves(userIds, null, null, 2, null, cursor, response).forEach(l -> walked.add(l.getId()));
+                cursor = response.getHeader(KeysetCursor.HEADER);
+            }
+
+            assertThat(walked).doesNotHaveDuplicates().hasSameSizeAs(all);
+        }
+    }
+
+    @Test
+    void testOverlappingLeaveIsRejectedWithConflict() {
+        ResponseEntity<?> created = leaveController.createLeave(leave("2030-03-02", "2030-03-06"));
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String createdId = ((LeaveRecord) created.getBody()).getId();
+
+        ResponseEntity<?> overlapping = leaveController.createLeave(leave("2030-03-06", "2030-03-09"));
+
+        assertThat(overlapping.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        LeaveConflictResponse body = (LeaveConflictResponse) overlapping.getBody();
+        assertThat(body.error()).isEqualTo(LeaveConflictResponse.OVERLAP);
+        assertThat(body.conflicts()).extracting(LeaveConflictResponse.Conflict::id).containsExactly(createdId);
+
+        // Moving the leave itself within its own range is not a conflict
+        ResponseEntity<?> moved = leaveController.updateLeave(createdId, leave("2030-03-03", "2030-03-07"));
+        assertThat(moved.getStatusCode()).isEqualTo(HttpStatus.OK);
+        leaveController.deleteLeave(createdId);
+    }
+
+    @Test
+    void testBulkImportIsIdempotentAndReportsRowErrors() throws IOException {
+        String feed = """
+                {"externalId": "hr-1", "userId": "u4", "startDate": "2032-05-04", "endDate": "2032-05-05"}
+                {"externalId": "hr-2", "userId": "u4", "startDate": "2032-05-05", "endDate": "2032-05-06"}
+                {"externalId": "hr-3", "userId": "nobody", "startDate": "2032-05-04", "endDate": "2032-05-05"}
+                {"externalId": "hr-4", "userId": "u4", "startDate": "not-a-date", "endDate": "2032-05-05"}
+                """;
+
+        LeaveImportService.ImportReport first = leaveImportService.importLeaves(
+                new StringReader(feed), LeaveImportService.Format.NDJSON, LeaveRecord.DataSource.HR);
+        LeaveImportService.ImportReport second = leaveImportService.importLeaves(
+                new StringReader(feed), LeaveImportService.Format.NDJSON, LeaveRecord.DataSource.HR);
+
+        assertThat(first.inserted()).isEqualTo(1);
+        assertThat(first.errors()).extracting(LeaveImportService.RowError::line).containsExactly(2, 3, 4);
+        assertThat(second.inserted()).isZero();
+        assertThat(second.unchanged()).isEqualTo(1);
+    }
+
+    @Test
+    void testCsvImportFailsOnlyTheRowWithAStrayQuote() throws IOException {
+        StringBuilder feed = new StringBuilder("externalId,userId,startDate,endDate,note\n")
+                .append("csv-1,u1,2035-03-02,2035-03-03,\"Stray quote\n");
+        for (int i = 0; i < 2000; i++) {
+            feed.append("csv-").append(i + 2).append(",nobody,2035-03-05,2035-03-05,filler\n");
+        }
+        feed.append("csv-last,u1,2035-03-09,2035-03-10,\"Two\nlines\"\n");
+
+        LeaveImportService.ImportReport report = leaveImportService.importLeaves(
+                new StringReader(feed.toString()), LeaveImportService.Format.CSV, LeaveRecord.DataSource.HR);
+
+        // Line 2 fails on its own; every later line is still read as its own row.
+        assertThat(report.rows()).isEqualTo(2002);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.errors().get(0).line()).isEqualTo(2);
+        assertThat(report.errors().get(0).message()).startsWith("quoted field is not closed");
+        assertThat(report.errors().get(1).line()).isEqualTo(3);
+        assertThat(report.failed()).isEqualTo(2001);
+        List<LeaveRecord> imported = leaveRepository.findByUserIdInAndDateRange(List.of("u1"),
+                LocalDate.parse("2035-01-01"), LocalDate.parse("2035-12-31"), Pageable.unpaged()).getContent();
+        assertThat(imported).extracting(LeaveRecord::getExternalId, LeaveRecord::getNote)
+                .containsExactly(tuple("csv-last", "Two\nlines"));
+        leaveController.deleteLeave(imported.get(0).getId());
+    }
+
+    @Test
+    void testIncrementalSyncAppliesOnlyChangesSinceWatermark() {
+        InMemorySyncSource source = new InMemorySyncSource();
+        leaveSyncService.register(source);
+        source.changes.add(LeaveSyncSource.Change.upsert(
+                new LeaveImportService.RawRow("ol-1", "u3", "2033-01-10", "2033-01-11", "APPROVED", null)));
+        source.changes.add(LeaveSyncSource.Change.upsert(
+                new LeaveImportService.RawRow("ol-2", "u3", "2033-02-10", "2033-02-11", "PENDING", null)));
+
+        LeaveSyncService.SyncRun first = leaveSyncService.run(source.name()).orElseThrow();
+
+        source.changes.add(LeaveSyncSource.Change.delete("ol-1", "u3"));
+        source.changes.add(LeaveSyncSource.Change.upsert(
+                new LeaveImportService.RawRow("ol-2", "u3", "2033-02-10", "2033-02-11", "APPROVED", null)));
+        LeaveSyncService.SyncRun second = leaveSyncService.run(source.name()).orElseThrow();
+        LeaveSyncService.SyncRun third = leaveSyncService.run(source.name()).orElseThrow();
+
+        assertThat(first.inserted()).isEqualTo(2);
+        assertThat(first.toWatermark()).isEqualTo("2");
+        assertThat(second.fromWatermark()).isEqualTo("2");
+        assertThat(second.changes()).isEqualTo(2);
+        assertThat(second.deleted()).isEqualTo(1);
+        assertThat(second.updated()).isEqualTo(1);
+        assertThat(third.changes()).isZero();
+        assertThat(third.toWatermark()).isEqualTo("4");
+    }
+
+    @Test
+    void testHistoryViewsAreCoalescedAndVisibleBeforeFlush() {
+        historyController.add(new HistoryController.HistoryRequest("u2", "pod1", "pod", "Pod One"));
+        historyController.add(new HistoryController.HistoryRequest("u2", "pod1", "POD", "Pod 1"));
+        historyController.add(new HistoryController.HistoryRequest("u2", "u3", "USER", "Carol"));
+
+        List<HistoryController.HistoryResponse> beforeFlush = historyController.getByUser("u2", null, null, null, null);
+        viewHistoryBuffer.flush();
+        historyController.add(new HistoryController.HistoryRequest("u2", "u3", "USER", "Carol W."));
+        viewHistoryBuffer.flush();
+        List<HistoryController.HistoryResponse> afterFlush = historyController.getByUser("u2", null, null, null, null);
+
+        assertThat(beforeFlush).extracting(HistoryController.HistoryResponse::name).containsExactly("Carol", "Pod 1");
+        assertThat(afterFlush).extracting(HistoryController.HistoryResponse::name).containsExactly("Carol W.", "Pod 1");
+        assertThat(viewHistoryRepository.findByUserIdOrderByTimestampDesc("u2", Pageable.unpaged()))
+                .hasSize(2);
+    }
+
+    @Test
+    void testHistoryRejectsValuesTooLongToStore() {
+        String name = "x".repeat(ViewHistory.MAX_TEXT_LENGTH + 1);
+
+        assertThat(historyController.add(new HistoryController.HistoryRequest("u3", "pod1", "POD", name)).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(historyController.add(new HistoryController.HistoryRequest("u3", name, "POD", "Pod One")).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(viewHistoryBuffer.pending("u3")).isEmpty();
+    }
+
+    @Test
+    void testFavoriteToggleIsWriteThrough() {
+        favoriteController.toggle(new FavoriteController.FavoriteRequest("u4", "team-a"));
+        List<String> added = favoriteController.toggle(new FavoriteController.FavoriteRequest("u4", "team-b")).getBody();
+        List<String> removed = favoriteController.toggle(new FavoriteController.FavoriteRequest("u4", "team-a")).getBody();
+
+        assertThat(added).containsExactly("team-b", "team-a");
+        assertThat(removed).containsExactly("team-b");
+        assertThat(favoriteController.getByUser("u4", null, null, null, null)).containsExactly("team-b");
+        assertThat(favoriteTeamRepository.findByUserIdOrderByCreatedAtDesc("u4"))
+                .extracting(com.easytimeoff.domain.FavoriteTeam::getTeamId).containsExactly("team-b");
+    }
+
+    @Test
+    void testRequestsAndQueriesArePublishedAsMeters() throws Exception {
+        mockMvc.perform(get("/api/pods/pod1/leaves")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("http.server.requests")
+                .tag("handler", "PodController.getPodLeaves")
+                .tag("uri", "/api/pods/{id}/leaves")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.statements").tag("status", "prepared")
+                .functionCounter().count()).isPositive();
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+        assertThat(meterRegistry.find("db.pool.saturation").tag("kind", "demand").gauge()).isNotNull();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "favorites").meters()).isNotEmpty();
+    }
+
+    @Test
+    void testEndpointsStayWithinQueryBudgets() throws Exception {
+        Map<String, Integer> budgets = new LinkedHashMap<>();
+        budgets.put("/api/teams", 2);
+        budgets.put("/api/teams/summaries", 1);
+        budgets.put("/api/pods", 2);
+        budgets.put("/api/pods/pod1/leaves", 3);
+        budgets.put("/api/users?query=al", 2);
+        budgets.put("/api/dashboard?userId=u1", 4);
+        budgets.put("/api/favorites?userId=u1", 1);
+        budgets.put("/api/history?userId=u1", 1);
+        budgets.put("/api/holidays?year=2026", 0);
+
+        for (Map.Entry<String, Integer> budget : budgets.entrySet()) {
+            mockMvc.perform(get(budget.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(QueryBudget.atMost(budget.getValue()));
+        }
+    }
+
+    @Test
+    void testLeaveExportStreamsFilteredRows() throws Exception {
+        LeaveRecord quoted = leaveRepository.save(LeaveRecord.builder()
+                .userId("u1")
+                .startDate(LocalDate.parse("2034-03-02"))
+                .endDate(LocalDate.parse("2034-03-04"))
+                .source(LeaveRecord.DataSource.HR)
+                .status(LeaveRecord.LeaveStatus.APPROVED)
+                .note("Trip, \"long\" weekend")
+                .build());
+        leaveRepository.save(LeaveRecord.builder()
+                .userId("u1")
+                .startDate(LocalDate.parse("2034-03-10"))
+                .endDate(LocalDate.parse("2034-03-10"))
+                .source(LeaveRecord.DataSource.MANUAL)
+                .status(LeaveRecord.LeaveStatus.PENDING)
+                .build());
+
+        String csv = mockMvc.perform(get("/api/leaves/export")
+                        .param("format", "csv")
+                        .param("from", "2034-03-01")
+                        .param("to", "2034-03-31")
+                        .param("source", "HR"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.split("\n")).containsExactly(
+                "id,userId,startDate,endDate,source,status,note,externalId",
+                quoted.getId() + ",u1,2034-03-02,2034-03-04,HR,APPROVED,\"Trip, \"\"long\"\" weekend\",");
+
+        String ndjson = mockMvc.perform(get("/api/leaves/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines().count()).isEqualTo(leaveRepository.count());
+        assertThat(ndjson.lines().filter(line -> line.contains(quoted.getId()))).hasSize(1);
+    }
+
+    @Test
+    void testLeaveChangesArePushedToPodSubscribers() throws Exception {
+        mockMvc.perform(get("/api/leaves/events")).andExpect(status().isBadRequest());
+
+        int before = leaveEventBus.subscribers();
+        MvcResult stream = mockMvc.perform(get("/api/leaves/events").param("podIds", "pod2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(leaveEventBus.subscribers()).isEqualTo(before + 1);
+
+        ResponseEntity<?> created = leaveController.createLeave(leave("2036-05-04", "2036-05-08"));
+        String id = ((LeaveRecord) created.getBody()).getId();
+        leaveController.updateLeave(id, leave("2036-05-05", "2036-05-08"));
+        leaveController.deleteLeave(id);
+
+        MockHttpServletResponse response = stream.getResponse();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains("event:deleted") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String events = response.getContentAsString();
+        assertThat(response.getContentType()).startsWith("text/event-stream");
+        assertThat(events).contains("event:created", "event:updated", "event:deleted", "\"id\":\"" + id + "\"");
+        assertThat(events.indexOf("event:created")).isLessThan(events.indexOf("event:updated"));
+        assertThat(events.indexOf("event:updated")).isLessThan(events.indexOf("event:deleted"));
+
+        stream.getRequest().getAsyncContext().complete();
+        assertThat(leaveEventBus.subscribers()).isEqualTo(before);
+    }
+
+    @Test
+    void testLeaveExportImportsBackUnchanged() throws Exception {
+        List<LeaveRecord> originals = List.of(
+                leaveRepository.save(LeaveRecord.builder()
+                        .userId("u2")
+                        .startDate(LocalDate.parse("2039-04-06"))
+                        .endDate(LocalDate.parse("2039-04-08"))
+                        .source(LeaveRecord.DataSource.HR)
+                        .status(LeaveRecord.LeaveStatus.APPROVED)
+                        .externalId("hr-roundtrip")
+                        .note("Line one, \"quoted\"\nline two")
+                        .build()),
+                leaveRepository.save(LeaveRecord.builder()
+                        .userId("u2")
+                        .startDate(LocalDate.parse("2039-04-20"))
+                        .endDate(LocalDate.parse("2039-04-21"))
+                        .source(LeaveRecord.DataSource.OUTLOOK)
+                        .status(LeaveRecord.LeaveStatus.APPROVED)
+                        .externalId("ol-roundtrip")
+                        .build()),
+                leaveRepository.save(LeaveRecord.builder()
+                        .userId("u2")
+                        .startDate(LocalDate.parse("2039-05-11"))
+                        .endDate(LocalDate.parse("2039-05-11"))
+                        .source(LeaveRecord.DataSource.MANUAL)
+                        .status(LeaveRecord.LeaveStatus.PENDING)
+                        .note("Dentist\nthen school run")
+                        .build()));
+
+        for (String format : List.of("csv", "ndjson")) {
+            // One export of every source, imported under a single request source.
+            String exported = mockMvc.perform(get("/api/leaves/export")
+                            .param("format", format)
+                            .param("from", "2039-01-01")
+                            .param("to", "2039-12-31"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            // Over the originals: every row matches its own record.
+            LeaveImportService.ImportReport again = leaveImportService.importLeaves(new StringReader(exported),
+                    LeaveImportService.Format.resolve(format, null), LeaveRecord.DataSource.MANUAL);
+            assertThat(again.errors()).as(format).isEmpty();
+            assertThat(again.unchanged()).isEqualTo(3);
+            assertThat(again.inserted()).isZero();
+
+            // Into an empty range: the rows come back with their ids, sources and externalIds.
+            originals.forEach(leave -> leaveController.deleteLeave(leave.getId()));
+            LeaveImportService.ImportReport restored = leaveImportService.importLeaves(new StringReader(exported),
+                    LeaveImportService.Format.resolve(format, null), LeaveRecord.DataSource.MANUAL);
+            assertThat(restored.errors()).as(format).isEmpty();
+            assertThat(restored.inserted()).isEqualTo(3);
+
+            List<LeaveRecord> imported = leaveRepository.findByUserIdInAndDateRange(List.of("u2"),
+                    LocalDate.parse("2039-01-01"), LocalDate.parse("2039-12-31"),
+                    Pageable.unpaged()).getContent();
+            assertThat(imported).extracting(LeaveRecord::getId, LeaveRecord::getSource, LeaveRecord::getExternalId,
+                            LeaveRecord::getStartDate, LeaveRecord::getEndDate, LeaveRecord::getStatus, LeaveRecord::getNote)
+                    .containsExactlyInAnyOrderElementsOf(originals.stream()
+                            .map(leave -> tuple(leave.getId(), leave.getSource(), leave.getExternalId(),
+                                    leave.getStartDate(), leave.getEndDate(), leave.getStatus(), leave.getNote()))
+                            .toList());
+        }
+    }
+
+    @Test
+    void testConditionalGetsAnswer304UntilAMemberLeaveChanges() throws Exception {
+        // Team ids are generated on insert, so find the seeded "Backend Guild" (u2, u5) by name.
+        String team = "/api/teams/" + teamRepository.findAll().stream()
+                .filter(candidate -> candidate.getName().equals("Backend Guild"))
+                .findFirst().orElseThrow().getId() + "/leaves";
+        List<String> calendars = List.of(team, "/api/pods/pod2/leaves", "/api/users/u5");
+        Map<String, String> etags = new LinkedHashMap<>();
+        for (String url : calendars) {
+            etags.put(url, etagOf(url));
+            mockMvc.perform(get(url).header("If-None-Match", etags.get(url)))
+                    .andExpect(status().isNotModified())
+                    .andExpect(QueryBudget.atMost(0));
+        }
+
+        // u5 is in the team and in pod2: each write to their leaves invalidates both calendars.
+        ResponseEntity<?> created = leaveController.createLeave(leave("2040-02-03", "2040-02-04"));
+        String id = ((LeaveRecord) created.getBody()).getId();
+        etags = assertTagsChanged(etags, team, "/api/pods/pod2/leaves");
+        leaveController.updateLeave(id, leave("2040-02-03", "2040-02-05"));
+        etags = assertTagsChanged(etags, team, "/api/pods/pod2/leaves");
+        leaveController.deleteLeave(id);
+        assertTagsChanged(etags, team, "/api/pods/pod2/leaves");
+
+        // pod1 has no u5, so its tag still matches.
+        String pod1 = etagOf("/api/pods/pod1/leaves");
+        leaveController.deleteLeave(((LeaveRecord) leaveController.createLeave(leave("2040-03-03", "2040-03-04")).getBody()).getId());
+        mockMvc.perform(get("/api/pods/pod1/leaves").header("If-None-Match", pod1))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testEntityCacheLoadsMissingUsersInOneBatch() {
+        entityCache.getUser("u4");
+        List.of("u1", "u2", "u3").forEach(entityCache::invalidateUser);
+        CacheStats before = entityCache.stats().get("users");
+
+        List<User> users = entityCache.getUsers(List.of("u3", "u1", "missing", "u4", "u2", "u1"));
+
+        // Request order, duplicates and unknown ids dropped; the four misses share one load.
+        assertThat(users).extracting(User::getId).containsExactly("u3", "u1", "u4", "u2");
+        CacheStats delta = entityCache.stats().get("users").minus(before);
+        assertThat(delta.hitCount()).isEqualTo(1);
+        assertThat(delta.missCount()).isEqualTo(4);
+        assertThat(delta.loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testEntityCacheDropsTeamsAndPodsAfterCommit() {
+        Team team = teamRepository.findAll().stream()
+                .filter(candidate -> candidate.getName().equals("Backend Guild"))
+                .findFirst().orElseThrow();
+        assertThat(entityCache.getTeam(team.getId()).orElseThrow().getName()).isEqualTo("Backend Guild");
+        assertThat(entityCache.getPod("pod2").orElseThrow().getName()).isEqualTo("Inventory Pod");
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Team renamedTeam = teamRepository.findById(team.getId()).orElseThrow();
+                renamedTeam.setName("Renamed Guild");
+                teamRepository.saveAndFlush(renamedTeam);
+                Pod renamedPod = podRepository.findById("pod2").orElseThrow();
+                renamedPod.setName("Renamed Pod");
+                podRepository.saveAndFlush(renamedPod);
+
+                // Flushed but not committed: other readers must keep the cached copies.
+                assertThat(entityCache.getTeam(team.getId()).orElseThrow().getName()).isEqualTo("Backend Guild");
+                assertThat(entityCache.getPod("pod2").orElseThrow().getName()).isEqualTo("Inventory Pod");
+            });
+            assertThat(entityCache.getTeam(team.getId()).orElseThrow().getName()).isEqualTo("Renamed Guild");
+            assertThat(entityCache.getPod("pod2").orElseThrow().getName()).isEqualTo("Renamed Pod");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                Team restoredTeam = teamRepository.findById(team.getId()).orElseThrow();
+                restoredTeam.setName("Backend Guild");
+                Pod restoredPod = podRepository.findById("pod2").orElseThrow();
+                restoredPod.setName("Inventory Pod");
+            });
+        }
+        assertThat(entityCache.getTeam(team.getId()).orElseThrow().getName()).isEqualTo("Backend Guild");
+    }
+
+    @Test
+    void testCacheStatsReportsEveryCache() throws Exception {
+        entityCache.getUser("u1");
+        entityCache.getUser("u1");
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(4)))
+                .andExpect(jsonPath("$.users.size").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.users.hits").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.users.loads").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.users.hitRate").isNumber())
+                .andExpect(jsonPath("$.teams.misses").isNumber())
+                .andExpect(jsonPath("$.pods.evictions").isNumber())
+                .andExpect(jsonPath("$.favorites.size").isNumber());
+    }
+
+    @Test
+    void testPodAvailabilityBitmapsAndOutCounts() throws Exception {
+        List<String> created = new ArrayList<>();
+        try {
+            for (LeaveRecord leave : List.of(
+                    leaveFor("u4", "2042-05-02", "2042-05-04", LeaveRecord.LeaveStatus.APPROVED),
+                    leaveFor("u5", "2042-05-04", "2042-05-05", LeaveRecord.LeaveStatus.PENDING),
+                    leaveFor("u5", "2042-05-07", "2042-05-07", LeaveRecord.LeaveStatus.REJECTED),
+                    leaveFor("u5", "2042-04-25", "2042-05-01", LeaveRecord.LeaveStatus.APPROVED))) {
+                created.add(((LeaveRecord) leaveController.createLeave(leave).getBody()).getId());
+            }
+
+            String body = mockMvc.perform(get("/api/pods/pod2/availability")
+                            .param("from", "2042-05-01").param("to", "2042-05-10"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            AvailabilityResponse availability = objectMapper.readValue(body, AvailabilityResponse.class);
+
+            // Day 0 is 2042-05-01; the rejected leave is ignored and the one starting before the window is clipped.
+            assertThat(availability.days()).isEqualTo(10);
+            assertThat(availability.members()).extracting(AvailabilityResponse.MemberAvailability::userId)
+                    .containsExactly("u4", "u5");
+            assertThat(outDays(availability.members().get(0))).containsExactly(1, 2, 3);
+            assertThat(outDays(availability.members().get(1))).containsExactly(0, 3, 4);
+            assertThat(availability.outCounts()).containsExactly(1, 1, 1, 2, 1, 0, 0, 0, 0, 0);
+        } finally {
+            created.forEach(leaveController::deleteLeave);
+        }
+    }
+
+    @Test
+    void testAvailabilityWindowIsCapped() throws Exception {
+        mockMvc.perform(get("/api/pods/pod2/availability").param("from", "2042-01-01").param("to", "2044-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days").value(AvailabilityService.MAX_WINDOW_DAYS));
+        mockMvc.perform(get("/api/pods/pod2/availability").param("from", "2042-01-01").param("to", "2044-01-02"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pods/pod2/availability").param("from", "2042-01-02").param("to", "2042-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testDashboardGroupsLeavesPerFavoriteTeam() throws Exception {
+        Team guild = teamRepository.findAll().stream()
+                .filter(candidate -> candidate.getName().equals("Backend Guild"))
+                .findFirst().orElseThrow();
+        Team crew = teamController.create(Team.builder()
+                .name("Dashboard Crew")
+                .type(Team.TeamType.VIRTUAL)
+                .memberIds(Set.of("u1", "u4"))
+                .createdBy("u3")
+                .build());
+        List<String> favorites = List.of(guild.getId(), "deleted-team", crew.getId());
+        List<String> created = new ArrayList<>();
+        try {
+            // Newest favorite first; ids that no longer resolve to a team are skipped.
+            favorites.forEach(teamId -> favoriteController.toggle(new FavoriteController.FavoriteRequest("u3", teamId)));
+            created.add(((LeaveRecord) leaveController.createLeave(
+                    leaveFor("u4", "2043-03-02", "2043-03-03", LeaveRecord.LeaveStatus.APPROVED)).getBody()).getId());
+            created.add(((LeaveRecord) leaveController.createLeave(
+                    leaveFor("u5", "2043-03-05", "2043-03-05", LeaveRecord.LeaveStatus.PENDING)).getBody()).getId());
+            List.of("u1", "u2", "u4", "u5").forEach(entityCache::invalidateUser);
+            List.of(guild.getId(), crew.getId()).forEach(entityCache::invalidateTeam);
+            favoritesCache.invalidate("u3");
+
+            // Cold caches: favorites, teams with their members and users are one statement each,
+            // however many teams are favorited.
+            mockMvc.perform(get("/api/dashboard")
+                            .param("userId", "u3").param("from", "2043-03-01").param("to", "2043-03-31"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.teams[*].team.name").value(contains("Dashboard Crew", "Backend Guild")))
+                    .andExpect(jsonPath("$.teams[0].members[*].user.id").value(containsInAnyOrder("u1", "u4")))
+                    .andExpect(jsonPath("$.teams[0].members[?(@.user.id == 'u4')].leaves[*].startDate").value(contains("2043-03-02")))
+                    .andExpect(jsonPath("$.teams[0].members[?(@.user.id == 'u1')].leaves[*]").isEmpty())
+                    .andExpect(jsonPath("$.teams[1].members[*].user.id").value(containsInAnyOrder("u2", "u5")))
+                    .andExpect(jsonPath("$.teams[1].members[?(@.user.id == 'u5')].leaves[*].startDate").value(contains("2043-03-05")))
+                    .andExpect(QueryBudget.atMost(3));
+        } finally {
+            created.forEach(leaveController::deleteLeave);
+            favorites.forEach(teamId -> favoriteController.toggle(new FavoriteController.FavoriteRequest("u3", teamId)));
+            teamController.delete(crew.getId());
+        }
+    }
+
+    @Test
+    void testCompactLeavesDecodeToTheDefaultFormat() throws Exception {
+        LeaveRecord hr = leaveFor("u4", "2044-06-01", "2044-06-03", LeaveRecord.LeaveStatus.APPROVED);
+        hr.setSource(LeaveRecord.DataSource.HR);
+        LeaveRecord outlook = leaveFor("u5", "2044-06-02", "2044-06-02", LeaveRecord.LeaveStatus.PENDING);
+        outlook.setSource(LeaveRecord.DataSource.OUTLOOK);
+        LeaveRecord manual = leaveFor("u5", "2044-06-10", "2044-06-11", LeaveRecord.LeaveStatus.REJECTED);
+        List<LeaveRecord> created = new ArrayList<>();
+        try {
+            for (LeaveRecord leave : List.of(hr, outlook, manual)) {
+                created.add((LeaveRecord) leaveController.createLeave(leave).getBody());
+            }
+
+            String body = mockMvc.perform(get("/api/pods/pod2/leaves")
+                            .param("from", "2044-06-01").param("to", "2044-06-30").param("format", "compact"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            CompactLeavesResponse compact = objectMapper.readValue(body, CompactLeavesResponse.class);
+
+            int rows = compact.leaveIds().length;
+            assertThat(rows).isEqualTo(3);
+            assertThat(List.of(compact.memberIndex().length, compact.startDay().length, compact.length().length,
+                    compact.status().length, compact.source().length)).containsOnly(rows);
+            List<LeaveRecord> decoded = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                LocalDate start = LocalDate.ofEpochDay(compact.startDay()[i]);
+                decoded.add(LeaveRecord.builder()
+                        .id(compact.leaveIds()[i])
+                        .userId(compact.members().get(compact.memberIndex()[i]).id())
+                        .startDate(start)
+                        .endDate(start.plusDays(compact.length()[i] - 1))
+                        .status(compact.statuses().get(compact.status()[i]))
+                        .source(compact.sources().get(compact.source()[i]))
+                        .build());
+            }
+            assertThat(decoded)
+                    .extracting(LeaveRecord::getId, LeaveRecord::getUserId, LeaveRecord::getStartDate,
+                            LeaveRecord::getEndDate, LeaveRecord::getStatus, LeaveRecord::getSource)
+                    .containsExactlyInAnyOrderElementsOf(created.stream()
+                            .map(leave -> tuple(leave.getId(), leave.getUserId(), leave.getStartDate(),
+                                    leave.getEndDate(), leave.getStatus(), leave.getSource()))
+                            .toList());
+
+            // Without format the response is still one entry per member with full user and leave objects.
+            mockMvc.perform(get("/api/pods/pod2/leaves").param("from", "2044-06-01").param("to", "2044-06-30"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(jsonPath("$[*].user.id").value(containsInAnyOrder("u4", "u5")))
+                    .andExpect(jsonPath("$[?(@.user.id == 'u4')].user.displayName").value(contains("Diana Prince")))
+                    .andExpect(jsonPath("$[?(@.user.id == 'u4')].leaves[*].id").value(contains(created.get(0).getId())))
+                    .andExpect(jsonPath("$[?(@.user.id == 'u5')].leaves[*].id")
+                            .value(containsInAnyOrder(created.get(1).getId(), created.get(2).getId())))
+                    .andExpect(jsonPath("$[?(@.user.id == 'u5')].leaves[*].source").value(containsInAnyOrder("OUTLOOK", "MANUAL")));
+        } finally {
+            created.forEach(leave -> leaveController.deleteLeave(leave.getId()));
+        }
+    }
+
+    private static List<Integer> outDays(AvailabilityResponse.MemberAvailability member) {
+        return BitSet.valueOf(Base64.getDecoder().decode(member.bitmap())).stream().boxed().toList();
+    }
+
+    private static LeaveRecord leaveFor(String userId, String start, String end, LeaveRecord.LeaveStatus status) {
+        return LeaveRecord.builder()
+                .userId(userId)
+                .startDate(LocalDate.parse(start))
+                .endDate(LocalDate.parse(end))
+                .source(LeaveRecord.DataSource.MANUAL)
+                .status(status)
+                .build();
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).as("ETag of %s", url).isNotBlank();
+        return etag;
+    }
+
+    // Asserts the old tags of the given calendars no longer match, and returns their new tags.
+    private Map<String, String> assertTagsChanged(Map<String, String> etags, String... urls) throws Exception {
+        Map<String, String> next = new LinkedHashMap<>(etags);
+        for (String url : urls) {
+            mockMvc.perform(get(url).header("If-None-Match", etags.get(url)))
+                    .andExpect(status().isOk());
+            next.put(url, etagOf(url));
+            assertThat(next.get(url)).isNotEqualTo(etags.get(url));
+        }
+        return next;
+    }
+
+    // Watermark is the number of changes already handed out.
+    private static final class InMemorySyncSource implements LeaveSyncSource {
+        final List<Change> changes = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "test-outlook";
+        }
+
+        @Override
+        public LeaveRecord.DataSource dataSource() {
+            return LeaveRecord.DataSource.OUTLOOK;
+        }
+
+        @Override
+        public ChangeBatch fetchChanges(String watermark, int limit) {
+            int from = watermark == null ? 0 : Integer.parseInt(watermark);
+            int to = Math.min(changes.size(), from + limit);
+            return new ChangeBatch(List.copyOf(changes.subList(from, to)), String.valueOf(to), to < changes.size());
+        }
+    }
+
+    private static LeaveRecord leave(String start, String end) {
+        return LeaveRecord.builder()
+                .userId("u5")
+                .startDate(LocalDate.parse(start))
+                .endDate(LocalDate.parse(end))
+                .source(LeaveRecord.DataSource.MANUAL)
+                .status(LeaveRecord.LeaveStatus.PENDING)
+                .build();
+    }
 }
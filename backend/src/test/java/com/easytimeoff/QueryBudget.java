@@ -0,0 +1,41 @@
+package com.easytimeoff;
+
+import com.easytimeoff.web.ServerTimingFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// MockMvc matcher for the number of JDBC statements a request executed, read from the
+// Server-Timing header, e.g.
+//
+//   mockMvc.perform(get("/api/teams")).andExpect(QueryBudget.atMost(2));
+//
+// Budgets are upper bounds for a cold cache, so an N+1 (a statement per team, member, ...)
+// fails the build as soon as the seeded data has more than a handful of rows.
+public final class QueryBudget {
+
+    private static final Pattern QUERIES = Pattern.compile("db;[^,]*desc=\"(\\d+) queries\"");
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher atMost(int queries) {
+        return result -> assertThat(queriesOf(result))
+                .as("JDBC statements for %s %s (%s: %s)",
+                        result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                        ServerTimingFilter.HEADER, result.getResponse().getHeader(ServerTimingFilter.HEADER))
+                .isLessThanOrEqualTo(queries);
+    }
+
+    public static int queriesOf(MvcResult result) {
+        String header = result.getResponse().getHeader(ServerTimingFilter.HEADER);
+        assertThat(header).as("%s header", ServerTimingFilter.HEADER).isNotNull();
+        Matcher matcher = QUERIES.matcher(header);
+        assertThat(matcher.find()).as("query count in %s", header).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,107 @@
+package com.easytimeoff.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-endpoint latency percentiles and throughput of one load-test run, and the baseline file
+// later runs are compared against.
+record LoadReport(Map<String, String> profile, List<EndpointStats> endpoints) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record EndpointStats(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughput,
+            double p50Ms,
+            double p95Ms,
+            double p99Ms,
+            double maxMs
+    ) {
+        // latenciesNanos is sorted in place.
+        static EndpointStats of(String endpoint, long[] latenciesNanos, long errors, double seconds) {
+            Arrays.sort(latenciesNanos);
+            return new EndpointStats(
+                    endpoint,
+                    latenciesNanos.length,
+                    errors,
+                    latenciesNanos.length / seconds,
+                    percentile(latenciesNanos, 0.50),
+                    percentile(latenciesNanos, 0.95),
+                    percentile(latenciesNanos, 0.99),
+                    latenciesNanos.length == 0 ? 0 : latenciesNanos[latenciesNanos.length - 1] / 1e6
+            );
+        }
+
+        // Nearest-rank percentile, in milliseconds.
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    void print() {
+        System.out.printf("%n%-12s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointStats stats : endpoints) {
+            System.out.printf("%-12s %,9d %7d %,10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50Ms(), stats.p95Ms(), stats.p99Ms(), stats.maxMs());
+        }
+    }
+
+    void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        JSON.writeValue(file.toFile(), this);
+    }
+
+    static LoadReport load(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), LoadReport.class);
+    }
+
+    // Endpoints whose p95/p99 grew, or whose throughput or error-free rate dropped, by more than
+    // the tolerance (0.2 = 20%). Tail percentiles under a millisecond are too noisy to flag.
+    List<String> regressionsAgainst(LoadReport baseline, double tolerance) {
+        Map<String, EndpointStats> before = new LinkedHashMap<>();
+        baseline.endpoints().forEach(stats -> before.put(stats.endpoint(), stats));
+        List<String> regressions = new ArrayList<>();
+        for (EndpointStats now : endpoints) {
+            EndpointStats then = before.get(now.endpoint());
+            if (then == null) {
+                continue;
+            }
+            latency(regressions, now.endpoint(), "p95", then.p95Ms(), now.p95Ms(), tolerance);
+            latency(regressions, now.endpoint(), "p99", then.p99Ms(), now.p99Ms(), tolerance);
+            if (now.throughput() < then.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f -> %.1f req/s",
+                        now.endpoint(), then.throughput(), now.throughput()));
+            }
+            if (now.errors() > 0 && then.errors() == 0) {
+                regressions.add(String.format("%s errors 0 -> %d", now.endpoint(), now.errors()));
+            }
+        }
+        return regressions;
+    }
+
+    private static void latency(List<String> out, String endpoint, String label, double then, double now, double tolerance) {
+        if (now >= 1.0 && now > then * (1 + tolerance)) {
+            out.add(String.format("%s %s %.2f -> %.2f ms", endpoint, label, then, now));
+        }
+    }
+}
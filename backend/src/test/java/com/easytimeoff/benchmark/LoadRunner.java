@@ -0,0 +1,353 @@
+package com.easytimeoff.benchmark;
+
+import com.easytimeoff.EasyTimeOffApplication;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Boots the application in this JVM against H2 (default) or a local PostgreSQL, seeds an org of
+// the requested size, and drives a weighted mix of API calls from concurrent clients. Reports
+// p50/p95/p99 latency and throughput per endpoint, and compares them with a baseline file. Not
+// a unit test (the name keeps surefire away from it); run it with
+//
+//   mvn test-compile exec:java -Dexec.args="users=5000 clients=64 duration=60s"
+//
+// Options (key=value):
+//   db=h2|postgres        postgres uses the dev profile; url=, user=, password= override it.
+//                         The org tables are wiped and reseeded, so use a throwaway database
+//                         and confirm with wipe=true; without it the run stops before connecting.
+//   users, podSize, teams, teamSize, favorites, leaves   org shape (per-user favorites/leaves)
+//   clients, duration, warmup, seed                      client count and timing
+//   mix=search:30,calendar:25,dashboard:20,history:15,favorite:10
+//   baseline=target/loadtest/baseline.json, tolerance=0.2, saveBaseline=false
+//
+// The first run (or saveBaseline=true) writes the baseline; later runs fail when an endpoint's
+// p95/p99 or throughput is more than the tolerance worse than it.
+public final class LoadRunner {
+
+    enum Endpoint {
+        SEARCH, CALENDAR, DASHBOARD, HISTORY, FAVORITE;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("db", "h2");
+        DEFAULTS.put("url", "");
+        DEFAULTS.put("user", "");
+        DEFAULTS.put("password", "");
+        DEFAULTS.put("wipe", "false");
+        DEFAULTS.put("users", "2000");
+        DEFAULTS.put("podSize", "15");
+        DEFAULTS.put("teams", "200");
+        DEFAULTS.put("teamSize", "15");
+        DEFAULTS.put("favorites", "3");
+        DEFAULTS.put("leaves", "6");
+        DEFAULTS.put("clients", "32");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("mix", "search:30,calendar:25,dashboard:20,history:15,favorite:10");
+        DEFAULTS.put("baseline", "target/loadtest/baseline.json");
+        DEFAULTS.put("tolerance", "0.2");
+        DEFAULTS.put("saveBaseline", "false");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        LoadRunnerOrg org = new LoadRunnerOrg(
+                intOption(options, "users"),
+                intOption(options, "podSize"),
+                intOption(options, "teams"),
+                intOption(options, "teamSize"),
+                intOption(options, "favorites"),
+                intOption(options, "leaves"),
+                Long.parseLong(options.get("seed")));
+        Endpoint[] mix = mix(options.get("mix"));
+        int clients = intOption(options, "clients");
+        Duration warmup = DurationStyle.detectAndParse(options.get("warmup"));
+        Duration duration = DurationStyle.detectAndParse(options.get("duration"));
+
+        LoadReport report;
+        try (ConfigurableApplicationContext context = boot(options, org)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Seeded %,d users, %,d teams; %d clients for %s after %s warmup against port %d%n",
+                    org.users, org.teams, clients, duration, warmup, port);
+            report = drive(URI.create("http://localhost:" + port), org, mix, clients, warmup, duration,
+                    profile(options));
+        }
+        report.print();
+
+        Path baselineFile = Path.of(options.get("baseline"));
+        if (Boolean.parseBoolean(options.get("saveBaseline")) || !Files.exists(baselineFile)) {
+            report.save(baselineFile);
+            System.out.printf("%nBaseline written to %s%n", baselineFile.toAbsolutePath());
+            return;
+        }
+        LoadReport baseline = LoadReport.load(baselineFile);
+        if (!baseline.profile().equals(report.profile())) {
+            System.out.printf("%nWarning: baseline %s was recorded with a different profile:%n  %s%n",
+                    baselineFile, baseline.profile());
+        }
+        List<String> regressions = report.regressionsAgainst(baseline, Double.parseDouble(options.get("tolerance")));
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Regressions against " + baselineFile + ":\n  " + String.join("\n  ", regressions));
+        }
+        System.out.printf("%nNo regressions against %s%n", baselineFile);
+    }
+
+    private static ConfigurableApplicationContext boot(Map<String, String> options, LoadRunnerOrg org) {
+        // Passed as command-line arguments so they take precedence over application.properties.
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--app.seed-data=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        String db = options.get("db");
+        if ("h2".equals(db)) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest");
+        } else if ("postgres".equals(db)) {
+            args.add("--spring.profiles.active=dev");
+        } else {
+            throw new IllegalArgumentException("db must be h2 or postgres: " + db);
+        }
+        // Only the private in-memory H2 database may be wiped without asking.
+        boolean throwaway = "h2".equals(db) && options.get("url").isEmpty();
+        if (!throwaway && !Boolean.parseBoolean(options.get("wipe"))) {
+            throw new IllegalArgumentException("Seeding deletes every row in the org tables of " + db
+                    + (options.get("url").isEmpty() ? "" : " at " + options.get("url"))
+                    + "; pass wipe=true to confirm");
+        }
+        addIfSet(args, "spring.datasource.url", options.get("url"));
+        addIfSet(args, "spring.datasource.username", options.get("user"));
+        addIfSet(args, "spring.datasource.password", options.get("password"));
+
+        // Seeding runs as a CommandLineRunner: after the schema exists, before the in-memory
+        // indexes load on ApplicationReadyEvent.
+        return new SpringApplicationBuilder(EasyTimeOffApplication.class)
+                .initializers(context -> context.getBeanFactory().registerSingleton("loadRunnerSeeder",
+                        (CommandLineRunner) ignored -> org.seed(context.getBean(DataSource.class))))
+                .run(args.toArray(String[]::new));
+    }
+
+    private static LoadReport drive(
+            URI base,
+            LoadRunnerOrg org,
+            Endpoint[] mix,
+            int clients,
+            Duration warmup,
+            Duration duration,
+            Map<String, String> profile
+    ) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        LongAdder[] errors = new LongAdder[Endpoint.values().length];
+        Arrays.setAll(errors, i -> new LongAdder());
+
+        List<Future<Samples[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long seed = Long.parseLong(profile.get("seed"));
+            for (int c = 0; c < clients; c++) {
+                Random random = new Random(seed * 31 + c);
+                results.add(executor.submit(() -> runClient(http, base, org, mix, random, measureFrom, stopAt, errors)));
+            }
+        }
+
+        Samples[] merged = new Samples[Endpoint.values().length];
+        Arrays.setAll(merged, i -> new Samples());
+        for (Future<Samples[]> result : results) {
+            Samples[] client = result.get();
+            for (int e = 0; e < merged.length; e++) {
+                merged[e].addAll(client[e]);
+            }
+        }
+        double seconds = duration.toNanos() / 1e9;
+        List<LoadReport.EndpointStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (Arrays.asList(mix).contains(endpoint)) {
+                stats.add(LoadReport.EndpointStats.of(endpoint.label(), merged[endpoint.ordinal()].toArray(),
+                        errors[endpoint.ordinal()].sum(), seconds));
+            }
+        }
+        return new LoadReport(profile, stats);
+    }
+
+    // Closed loop without think time: each client acts as one user and sends its next request as
+    // soon as the previous one completes. Only requests started after the warmup are recorded.
+    private static Samples[] runClient(
+            HttpClient http,
+            URI base,
+            LoadRunnerOrg org,
+            Endpoint[] mix,
+            Random random,
+            long measureFrom,
+            long stopAt,
+            LongAdder[] errors
+    ) {
+        Samples[] samples = new Samples[Endpoint.values().length];
+        Arrays.setAll(samples, i -> new Samples());
+        String userId = org.userIds.get(random.nextInt(org.users));
+        long started;
+        while ((started = System.nanoTime()) < stopAt) {
+            Endpoint endpoint = mix[random.nextInt(mix.length)];
+            HttpRequest request = request(base, endpoint, userId, org, random);
+            boolean failed;
+            try {
+                failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= measureFrom) {
+                samples[endpoint.ordinal()].add(elapsed);
+                if (failed) {
+                    errors[endpoint.ordinal()].increment();
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static HttpRequest request(URI base, Endpoint endpoint, String userId, LoadRunnerOrg org, Random random) {
+        LocalDate from = LoadRunnerOrg.YEAR_START.plusDays(30L * random.nextInt(12));
+        String range = "from=" + from + "&to=" + from.plusDays(30);
+        String teamId = org.teams == 0 ? "none" : org.teamIds.get(random.nextInt(org.teams));
+        return switch (endpoint) {
+            case SEARCH -> {
+                String[] terms = LoadRunnerOrg.searchTerms();
+                String term = terms[random.nextInt(terms.length)];
+                term = term.substring(0, 1 + random.nextInt(term.length()));
+                yield get(base, "/api/users?limit=20&query=" + URLEncoder.encode(term, StandardCharsets.UTF_8));
+            }
+            case CALENDAR -> get(base, "/api/teams/" + teamId + "/leaves?" + range);
+            case DASHBOARD -> get(base, "/api/dashboard?userId=" + userId + "&" + range);
+            case HISTORY -> post(base, "/api/history", String.format(
+                    "{\"userId\":\"%s\",\"itemId\":\"%s\",\"type\":\"TEAM\",\"name\":\"Team %s\"}", userId, teamId, teamId));
+            case FAVORITE -> post(base, "/api/favorites", String.format(
+                    "{\"userId\":\"%s\",\"teamId\":\"%s\"}", userId, teamId));
+        };
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static HttpRequest post(URI base, String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Weighted mix expanded into a lookup table, so picking an endpoint is one random index.
+    private static Endpoint[] mix(String spec) {
+        List<Endpoint> table = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("mix entries are endpoint:weight: " + part);
+            }
+            Endpoint endpoint = Endpoint.valueOf(entry[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(entry[1].trim()); i > 0; i--) {
+                table.add(endpoint);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("mix has no positive weights: " + spec);
+        }
+        return table.toArray(Endpoint[]::new);
+    }
+
+    // Everything that shapes the numbers; a baseline is only comparable under the same profile.
+    private static Map<String, String> profile(Map<String, String> options) {
+        Map<String, String> profile = new LinkedHashMap<>(options);
+        profile.remove("password");
+        profile.remove("wipe");
+        profile.remove("baseline");
+        profile.remove("tolerance");
+        profile.remove("saveBaseline");
+        profile.put("java", Runtime.version().toString());
+        profile.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        return profile;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Unknown option " + arg + "; expected one of " + DEFAULTS.keySet());
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private static void addIfSet(List<String> args, String key, String value) {
+        if (!value.isEmpty()) {
+            args.add("--" + key + "=" + value);
+        }
+    }
+
+    // Growable array of latencies in nanoseconds, one per client and endpoint, so recording
+    // needs no synchronization.
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.easytimeoff.benchmark;
+
+import com.easytimeoff.util.TimeOrderedIds;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Deterministic org for LoadRunner, written with plain JDBC batches so it works on H2 and
+// PostgreSQL alike (scripts/seed_perf.sql is PostgreSQL-only). Ids follow seed_perf.sql
+// (u00001, pod0001, vt0001); the same seed always produces the same org.
+final class LoadRunnerOrg {
+
+    static final LocalDate YEAR_START = LocalDate.of(2026, 1, 1);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] COUNTRIES = {"CN", "US"};
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Diana", "Evan", "Fiona", "George", "Hana", "Ivan", "Julia",
+            "Kenji", "Laura", "Mateo", "Nina", "Omar", "Priya", "Quinn", "Rosa", "Sven", "Tara"
+    };
+    private static final String[] LAST_NAMES = {
+            "Chen", "Smith", "Kim", "Prince", "Wright", "Garcia", "Müller", "Tanaka", "Singh", "Rossi"
+    };
+    private static final String[] TABLES = {
+            "favorite_teams", "view_history", "leaves", "team_members", "teams", "pod_members", "pods", "users"
+    };
+
+    final int users;
+    final int podSize;
+    final int teams;
+    final int teamSize;
+    final int favoritesPerUser;
+    final int leavesPerUser;
+    final long seed;
+
+    final List<String> userIds = new ArrayList<>();
+    final List<String> teamIds = new ArrayList<>();
+
+    LoadRunnerOrg(int users, int podSize, int teams, int teamSize, int favoritesPerUser, int leavesPerUser, long seed) {
+        this.users = users;
+        this.podSize = podSize;
+        this.teams = teams;
+        this.teamSize = teamSize;
+        this.favoritesPerUser = favoritesPerUser;
+        this.leavesPerUser = leavesPerUser;
+        this.seed = seed;
+        for (int u = 1; u <= users; u++) {
+            userIds.add(String.format("u%05d", u));
+        }
+        for (int t = 1; t <= teams; t++) {
+            teamIds.add(String.format("vt%04d", t));
+        }
+    }
+
+    // Prefixes the directory search mix draws from: display names start with one of these.
+    static String[] searchTerms() {
+        return FIRST_NAMES;
+    }
+
+    // Replaces everything in the org tables. Meant for the throwaway database LoadRunner boots
+    // against (it asks for wipe=true before anything else); never point it at data you want to keep.
+    void seed(DataSource dataSource) throws SQLException {
+        Random random = new Random(seed);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String table : TABLES) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+            seedUsersAndPods(connection);
+            seedTeams(connection, random);
+            seedFavorites(connection, random);
+            seedLeaves(connection, random);
+            connection.commit();
+        }
+    }
+
+    private void seedUsersAndPods(Connection connection) throws SQLException {
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO users (id, employee_id, display_name, email, country, avatar, team_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement pod = connection.prepareStatement("INSERT INTO pods (id, name) VALUES (?, ?)");
+             PreparedStatement member = connection.prepareStatement("INSERT INTO pod_members (pod_id, user_id) VALUES (?, ?)")) {
+            for (int i = 0; i < users; i++) {
+                String podId = podId(i);
+                if (i % podSize == 0) {
+                    pod.setString(1, podId);
+                    pod.setString(2, "Pod " + (i / podSize + 1));
+                    pod.addBatch();
+                }
+                String userId = userIds.get(i);
+                user.setString(1, userId);
+                user.setString(2, String.format("E%05d", i + 1));
+                user.setString(3, FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + (i + 1));
+                user.setString(4, userId + "@company.com");
+                user.setString(5, COUNTRIES[i % COUNTRIES.length]);
+                user.setString(6, "https://picsum.photos/seed/" + userId + "/200");
+                user.setString(7, podId);
+                user.addBatch();
+                member.setString(1, podId);
+                member.setString(2, userId);
+                member.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    pod.executeBatch();
+                    user.executeBatch();
+                    member.executeBatch();
+                }
+            }
+            pod.executeBatch();
+            user.executeBatch();
+            member.executeBatch();
+        }
+    }
+
+    private void seedTeams(Connection connection, Random random) throws SQLException {
+        try (PreparedStatement team = connection.prepareStatement(
+                "INSERT INTO teams (id, name, type, created_by) VALUES (?, ?, 'VIRTUAL', ?)");
+             PreparedStatement member = connection.prepareStatement("INSERT INTO team_members (team_id, user_id) VALUES (?, ?)")) {
+            for (int t = 0; t < teams; t++) {
+                String teamId = teamIds.get(t);
+                team.setString(1, teamId);
+                team.setString(2, "Virtual Team " + (t + 1));
+                team.setString(3, randomUser(random));
+                team.addBatch();
+                Set<String> members = new LinkedHashSet<>();
+                int size = Math.min(teamSize, users);
+                while (members.size() < size) {
+                    members.add(randomUser(random));
+                }
+                for (String userId : members) {
+                    member.setString(1, teamId);
+                    member.setString(2, userId);
+                    member.addBatch();
+                }
+                if ((t + 1) % 100 == 0) {
+                    team.executeBatch();
+                    member.executeBatch();
+                }
+            }
+            team.executeBatch();
+            member.executeBatch();
+        }
+    }
+
+    private void seedFavorites(Connection connection, Random random) throws SQLException {
+        if (teams == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (PreparedStatement favorite = connection.prepareStatement(
+                "INSERT INTO favorite_teams (id, user_id, team_id, created_at) VALUES (?, ?, ?, ?)")) {
+            int pending = 0;
+            for (String userId : userIds) {
+                Set<String> favorites = new LinkedHashSet<>();
+                int count = Math.min(favoritesPerUser, teams);
+                while (favorites.size() < count) {
+                    favorites.add(teamIds.get(random.nextInt(teams)));
+                }
+                int order = 0;
+                for (String teamId : favorites) {
+                    favorite.setString(1, TimeOrderedIds.next());
+                    favorite.setString(2, userId);
+                    favorite.setString(3, teamId);
+                    favorite.setLong(4, now - order++);
+                    favorite.addBatch();
+                    if (++pending % BATCH_SIZE == 0) {
+                        favorite.executeBatch();
+                    }
+                }
+            }
+            favorite.executeBatch();
+        }
+    }
+
+    // Non-overlapping leaves per user, spread over the year starting YEAR_START.
+    private void seedLeaves(Connection connection, Random random) throws SQLException {
+        if (leavesPerUser == 0) {
+            return;
+        }
+        int slot = 360 / leavesPerUser;
+        try (PreparedStatement leave = connection.prepareStatement(
+                "INSERT INTO leaves (id, user_id, start_date, end_date, source, status, note) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (String userId : userIds) {
+                for (int l = 0; l < leavesPerUser; l++) {
+                    LocalDate start = YEAR_START.plusDays((long) l * slot + random.nextInt(Math.max(1, slot - 5)));
+                    leave.setString(1, TimeOrderedIds.next());
+                    leave.setString(2, userId);
+                    leave.setDate(3, Date.valueOf(start));
+                    leave.setDate(4, Date.valueOf(start.plusDays(random.nextInt(5))));
+                    leave.setString(5, random.nextInt(4) == 0 ? "OUTLOOK" : "HR");
+                    leave.setString(6, random.nextInt(5) == 0 ? "PENDING" : "APPROVED");
+                    leave.setString(7, "Annual leave");
+                    leave.addBatch();
+                    if (++pending % BATCH_SIZE == 0) {
+                        leave.executeBatch();
+                    }
+                }
+            }
+            leave.executeBatch();
+        }
+    }
+
+    private String podId(int userIndex) {
+        return String.format("pod%04d", userIndex / podSize + 1);
+    }
+
+    private String randomUser(Random random) {
+        return userIds.get(random.nextInt(users));
+    }
+}
@@ -0,0 +1,75 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.PublicHoliday;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BusinessDayCalendarTests {
+
+    private HolidayStore holidayStore;
+    private BusinessDayCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        holidayStore = mock(HolidayStore.class);
+        when(holidayStore.getHolidays(anyInt(), any())).thenReturn(List.of());
+        when(holidayStore.hasCountry("CN")).thenReturn(true);
+        when(holidayStore.getHolidays(eq(2026), eq("CN"))).thenReturn(List.of(
+                holiday("2026-10-01", false),
+                holiday("2026-10-02", false),
+                holiday("2026-10-10", true)
+        ));
+        calendar = new BusinessDayCalendar(holidayStore);
+    }
+
+    @Test
+    void countsWeekdaysMinusHolidaysPlusMakeUpDays() {
+        // Mon 2026-09-28 .. Sun 2026-10-11: 10 weekdays, two holidays, one Saturday make-up day
+        assertThat(calendar.workingDays("CN", date("2026-09-28"), date("2026-10-11"))).isEqualTo(9);
+        assertThat(calendar.workingDays("US", date("2026-09-28"), date("2026-10-11"))).isEqualTo(10);
+        assertThat(calendar.isWorkingDay("CN", date("2026-10-10"))).isTrue();
+    }
+
+    @Test
+    void spansYearBoundaries() {
+        // Thu 2026-12-31 .. Mon 2027-01-04
+        assertThat(calendar.workingDays("US", date("2026-12-31"), date("2027-01-04"))).isEqualTo(3);
+        assertThat(calendar.workingDays("US", date("2027-01-04"), date("2026-12-31"))).isZero();
+    }
+
+    @Test
+    void rebuildsWhenHolidaysReload() {
+        assertThat(calendar.workingDays("CN", date("2026-10-01"), date("2026-10-01"))).isZero();
+
+        when(holidayStore.getHolidays(eq(2026), eq("CN"))).thenReturn(List.of());
+        when(holidayStore.generation()).thenReturn(2L);
+
+        assertThat(calendar.workingDays("CN", date("2026-10-01"), date("2026-10-01"))).isEqualTo(1);
+    }
+
+    @Test
+    void unknownCountriesShareTheGlobalCalendar() {
+        assertThat(calendar.workingDays("XX", date("2026-09-28"), date("2026-10-11"))).isEqualTo(10);
+        assertThat(calendar.workingDays("yy", date("2026-09-28"), date("2026-10-11"))).isEqualTo(10);
+        assertThat(calendar.workingDays(null, date("2026-09-28"), date("2026-10-11"))).isEqualTo(10);
+
+        verify(holidayStore, times(1)).getHolidays(2026, HolidayStore.ALL_COUNTRIES);
+        verify(holidayStore, never()).getHolidays(2026, "XX");
+    }
+
+    private static PublicHoliday holiday(String date, boolean workday) {
+        return PublicHoliday.builder().date(date(date)).country("CN").name("Holiday").isWorkday(workday).build();
+    }
+
+    private static LocalDate date(String value) {
+        return LocalDate.parse(value);
+    }
+}
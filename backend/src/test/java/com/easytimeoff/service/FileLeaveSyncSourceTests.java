@@ -0,0 +1,65 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileLeaveSyncSourceTests {
+
+    private static final String FIRST = "{\"externalId\":\"hr-1\",\"userId\":\"u1\",\"startDate\":\"2031-01-05\",\"endDate\":\"2031-01-06\"}\n";
+    private static final String SECOND = "{\"externalId\":\"hr-2\",\"userId\":\"u2\",\"startDate\":\"2031-02-05\",\"endDate\":\"2031-02-06\"}\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void leavesAHalfWrittenAppendForTheNextRun() throws Exception {
+        FileLeaveSyncSource source = new FileLeaveSyncSource("hr", LeaveRecord.DataSource.HR, directory, new ObjectMapper());
+        Path file = directory.resolve("2031-01-01-hr.ndjson");
+        Files.writeString(file, FIRST + SECOND.substring(0, 20), StandardCharsets.UTF_8);
+
+        LeaveSyncSource.ChangeBatch first = source.fetchChanges(null, 100);
+        assertThat(first.changes()).extracting(change -> change.row().externalId()).containsExactly("hr-1");
+        assertThat(first.errors()).isEmpty();
+        assertThat(first.watermark()).isEqualTo("2031-01-01-hr.ndjson#1");
+
+        Files.writeString(file, SECOND.substring(20), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        LeaveSyncSource.ChangeBatch second = source.fetchChanges(first.watermark(), 100);
+        assertThat(second.changes()).extracting(change -> change.row().externalId()).containsExactly("hr-2");
+        assertThat(second.watermark()).isEqualTo("2031-01-01-hr.ndjson#2");
+    }
+
+    @Test
+    void readsAnUnterminatedLastLineOnceANewerFileExists() throws Exception {
+        FileLeaveSyncSource source = new FileLeaveSyncSource("hr", LeaveRecord.DataSource.HR, directory, new ObjectMapper());
+        Files.writeString(directory.resolve("2031-01-01-hr.ndjson"), FIRST.strip(), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("2031-01-02-hr.ndjson"), SECOND, StandardCharsets.UTF_8);
+
+        LeaveSyncSource.ChangeBatch batch = source.fetchChanges(null, 100);
+
+        assertThat(batch.changes()).extracting(change -> change.row().externalId()).containsExactly("hr-1", "hr-2");
+    }
+
+    @Test
+    void reportsLinesItCannotParse() throws Exception {
+        FileLeaveSyncSource source = new FileLeaveSyncSource("hr", LeaveRecord.DataSource.HR, directory, new ObjectMapper());
+        Files.writeString(directory.resolve("2031-01-01-hr.ndjson"),
+                FIRST + "{not json\n" + "{\"op\":\"rename\",\"externalId\":\"hr-3\"}\n" + SECOND, StandardCharsets.UTF_8);
+
+        LeaveSyncSource.ChangeBatch batch = source.fetchChanges(null, 100);
+
+        assertThat(batch.changes()).extracting(change -> change.row().externalId()).containsExactly("hr-1", "hr-2");
+        assertThat(batch.errors()).hasSize(2);
+        assertThat(batch.errors().get(0)).startsWith("2031-01-01-hr.ndjson line 2: invalid JSON");
+        assertThat(batch.errors().get(1)).isEqualTo("2031-01-01-hr.ndjson line 3: unknown op rename");
+        assertThat(batch.watermark()).isEqualTo("2031-01-01-hr.ndjson#4");
+    }
+}
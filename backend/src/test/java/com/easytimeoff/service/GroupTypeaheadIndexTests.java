@@ -0,0 +1,88 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.Pod;
+import com.easytimeoff.domain.Team;
+import com.easytimeoff.repository.PodRepository;
+import com.easytimeoff.repository.TeamRepository;
+import com.easytimeoff.service.GroupTypeaheadIndex.GroupHit;
+import com.easytimeoff.service.GroupTypeaheadIndex.GroupKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupTypeaheadIndexTests {
+
+    private GroupTypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        PodRepository podRepository = mock(PodRepository.class);
+        when(teamRepository.findAll()).thenReturn(List.of(
+                Team.builder().id("vt1").name("Backend Guild").type(Team.TeamType.VIRTUAL).build(),
+                Team.builder().id("vt2").name("Café Crew").type(Team.TeamType.VIRTUAL).build()
+        ));
+        when(podRepository.findAll()).thenReturn(List.of(
+                Pod.builder().id("pod1").name("Checkout Pod").build(),
+                Pod.builder().id("pod2").name("Inventory Pod").build()
+        ));
+        index = new GroupTypeaheadIndex(teamRepository, podRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.load();
+    }
+
+    @Test
+    void returnsMixedTeamAndPodHitsRankedByMatchQuality() {
+        assertThat(index.search("pod", 10)).extracting(GroupHit::id).containsExactly("pod1", "pod2");
+        assertThat(index.search("ck", 10)).extracting(GroupHit::id).containsExactly("pod1", "vt1");
+        assertThat(index.search("c", 10)).extracting(GroupHit::kind)
+                .contains(GroupKind.TEAM, GroupKind.POD);
+    }
+
+    @Test
+    void normalizesAccentsAndPunctuation() {
+        assertThat(index.search("cafe", 10)).extracting(GroupHit::id).containsExactly("vt2");
+        assertThat(index.search("  BACKEND-guild ", 10)).extracting(GroupHit::id).containsExactly("vt1");
+    }
+
+    @Test
+    void keepsOnlyTheTopResults() {
+        assertThat(index.search("o", 2)).hasSize(2);
+    }
+
+    @Test
+    void reflectsWrites() {
+        index.put(GroupKind.TEAM, "vt3", "Podcast Club");
+        index.remove(GroupKind.POD, "pod2");
+
+        assertThat(index.search("pod", 10)).extracting(GroupHit::id).containsExactly("vt3", "pod1");
+    }
+
+    @Test
+    void findsEveryNameContainingTheQuery() {
+        String[] words = {"alpha", "alps", "pal", "lap", "papa", "salsa"};
+        for (int i = 0; i < 60; i++) {
+            index.put(GroupKind.POD, "p" + i, words[i % words.length] + " " + words[(i * 7 + 3) % words.length]);
+        }
+
+        for (String query : List.of("a", "al", "alp", "pa", "ap", "lsa", "s", "papa sa", "x")) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                if ((words[i % words.length] + " " + words[(i * 7 + 3) % words.length]).contains(query)) {
+                    expected.add("p" + i);
+                }
+            }
+            assertThat(index.search(query, 100))
+                    .filteredOn(hit -> hit.kind() == GroupKind.POD && hit.id().startsWith("p") && !hit.id().startsWith("pod"))
+                    .extracting(GroupHit::id)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.PublicHoliday;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HolidayStoreTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexesByYearAndCountryIncludingAll() throws IOException {
+        HolidayStore store = storeFor("""
+                {"2026": {"CN": [{"date": "2026-10-01", "name": "National Day"}],
+                          "ALL": [{"date": "2026-01-01", "name": "New Year"}],
+                          "US": [{"date": "2026-07-04", "name": "Independence Day"}]}}
+                """);
+
+        // The unfiltered list keeps the file's country order.
+        assertThat(store.getHolidays(2026)).extracting(PublicHoliday::getName)
+                .containsExactly("National Day", "New Year", "Independence Day");
+        assertThat(store.getHolidays(2026, "cn")).extracting(PublicHoliday::getName)
+                .containsExactly("New Year", "National Day");
+        assertThat(store.getHolidays(2026, "PL")).extracting(PublicHoliday::getName).containsExactly("New Year");
+        assertThat(store.getHolidays(2027, "CN")).isEmpty();
+        assertThat(new String(store.getHolidaysJson(2026, "US"), StandardCharsets.UTF_8))
+                .contains("\"date\":\"2026-07-04\"")
+                .doesNotContain("National Day");
+    }
+
+    @Test
+    void failedReloadKeepsPreviousSnapshot() throws IOException {
+        HolidayStore store = storeFor("""
+                {"2026": {"CN": [{"date": "2026-10-01", "name": "National Day"}]}}
+                """);
+        long generation = store.generation();
+
+        Files.writeString(dir.resolve("holidays.json"), "{broken");
+
+        assertThat(store.reload()).isFalse();
+        assertThat(store.generation()).isEqualTo(generation);
+        assertThat(store.getHolidays(2026, "CN")).hasSize(1);
+    }
+
+    private HolidayStore storeFor(String json) throws IOException {
+        Path file = dir.resolve("holidays.json");
+        Files.writeString(file, json);
+        HolidayStore store = new HolidayStore(objectMapper, file.toString(), false);
+        store.init();
+        return store;
+    }
+}
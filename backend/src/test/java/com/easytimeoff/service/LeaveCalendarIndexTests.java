@@ -0,0 +1,101 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import com.easytimeoff.repository.LeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LeaveCalendarIndexTests {
+
+    private LeaveRepository leaveRepository;
+    private LeaveCalendarIndex index;
+
+    @BeforeEach
+    void setUp() {
+        leaveRepository = mock(LeaveRepository.class);
+        index = new LeaveCalendarIndex(leaveRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @Test
+    void fallsBackToRepositoryWhileCold() {
+        Page<LeaveRecord> page = new PageImpl<>(List.of(leave("l1", "u1", "2026-02-10", "2026-02-12")));
+        when(leaveRepository.findByUserIdInAndDateRange(any(), any(), any(), any())).thenReturn(page);
+
+        List<LeaveRecord> leaves = index.findLeaves(List.of("u1"), null, null);
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(leaves).extracting(LeaveRecord::getId).containsExactly("l1");
+    }
+
+    @Test
+    void answersRangeQueriesFromMemoryOnceLoaded() {
+        when(leaveRepository.findAll()).thenReturn(List.of(
+                leave("l1", "u1", "2026-01-01", "2026-03-31"),
+                leave("l2", "u1", "2026-02-10", "2026-02-12"),
+                leave("l3", "u1", "2026-04-01", "2026-04-02"),
+                leave("l4", "u2", "2026-02-20", "2026-02-21")
+        ));
+        index.load();
+        clearInvocations(leaveRepository);
+
+        List<LeaveRecord> leaves = index.findLeaves(List.of("u1", "u2"), date("2026-02-13"), date("2026-02-28"));
+
+        assertThat(leaves).extracting(LeaveRecord::getId).containsExactly("l1", "l4");
+        verifyNoInteractions(leaveRepository);
+    }
+
+    @Test
+    void writesAreVisibleToSubsequentQueries() {
+        when(leaveRepository.findAll()).thenReturn(List.of(leave("l1", "u1", "2026-02-10", "2026-02-12")));
+        index.load();
+
+        index.upsert(leave("l1", "u1", "2026-05-01", "2026-05-03"));
+        index.upsert(leave("l2", "u1", "2026-02-11", "2026-02-11"));
+
+        assertThat(index.findLeaves(List.of("u1"), date("2026-02-01"), date("2026-02-28")))
+                .extracting(LeaveRecord::getId).containsExactly("l2");
+
+        index.remove(leave("l2", "u1", "2026-02-11", "2026-02-11"));
+
+        assertThat(index.findLeaves(List.of("u1"), null, null))
+                .extracting(LeaveRecord::getId).containsExactly("l1");
+    }
+
+    @Test
+    void writesDuringLoadAreReloadedFromRepository() {
+        index.upsert(leave("l9", "u3", "2026-06-01", "2026-06-02"));
+        when(leaveRepository.findAll()).thenReturn(List.of());
+        when(leaveRepository.findByUserId("u3")).thenReturn(List.of(leave("l9", "u3", "2026-06-01", "2026-06-02")));
+
+        index.load();
+
+        assertThat(index.findLeaves(List.of("u3"), null, null))
+                .extracting(LeaveRecord::getId).containsExactly("l9");
+    }
+
+    private static LeaveRecord leave(String id, String userId, String start, String end) {
+        return LeaveRecord.builder()
+                .id(id)
+                .userId(userId)
+                .startDate(date(start))
+                .endDate(date(end))
+                .source(LeaveRecord.DataSource.MANUAL)
+                .status(LeaveRecord.LeaveStatus.APPROVED)
+                .build();
+    }
+
+    private static LocalDate date(String value) {
+        return LocalDate.parse(value);
+    }
+}
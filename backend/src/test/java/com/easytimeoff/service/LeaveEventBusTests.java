@@ -0,0 +1,133 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.LeaveRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveEventBusTests {
+
+    @Test
+    void deliversEventsOnlyForWatchedUsers() throws Exception {
+        LeaveEventBus bus = new LeaveEventBus(16, 100, Duration.ofHours(1));
+        RecordingSink sink = new RecordingSink(null);
+        bus.subscribe(Set.of("u1", "u2"), sink).orElseThrow();
+
+        bus.created(leave("l1", "u1"));
+        bus.created(leave("l2", "u4"));
+        bus.deleted(leave("l3", "u2"));
+
+        LeaveEventBus.LeaveEvent first = sink.events.poll(5, TimeUnit.SECONDS);
+        LeaveEventBus.LeaveEvent second = sink.events.poll(5, TimeUnit.SECONDS);
+        assertThat(first.type()).isEqualTo(LeaveEventBus.Type.CREATED);
+        assertThat(first.leave().getId()).isEqualTo("l1");
+        assertThat(second.type()).isEqualTo(LeaveEventBus.Type.DELETED);
+        assertThat(second.leave().getId()).isEqualTo("l3");
+        assertThat(second.sequence()).isGreaterThan(first.sequence());
+        assertThat(sink.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        bus.close();
+    }
+
+    @Test
+    void dropsSubscriberWhoseBufferOverflowsWithoutInterruptingItsSend() throws Exception {
+        LeaveEventBus bus = new LeaveEventBus(2, 100, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        RecordingSink fast = new RecordingSink(null);
+        LeaveEventBus.Subscription slowSubscription = bus.subscribe(Set.of("u1"), slow).orElseThrow();
+        bus.subscribe(Set.of("u1"), fast).orElseThrow();
+
+        // The slow sink blocks inside its first send, so later events fill its two-slot buffer
+        // while the fast sink keeps up with each one.
+        bus.created(leave("l1", "u1"));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            if (i > 1) {
+                bus.created(leave("l" + i, "u1"));
+            }
+            assertThat(fast.events.poll(5, TimeUnit.SECONDS).leave().getId()).isEqualTo("l" + i);
+        }
+
+        // Dropped at once, but the sink is only closed once the send in progress returns.
+        assertThat(slowSubscription.isClosed()).isTrue();
+        assertThat(bus.dropped()).isEqualTo(1);
+        assertThat(bus.subscribers()).isEqualTo(1);
+        assertThat(slow.closed.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        release.countDown();
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.slow).isTrue();
+        assertThat(slow.overlapped).isFalse();
+        assertThat(slow.events).extracting(event -> event.leave().getId()).containsExactly("l1");
+        bus.close();
+    }
+
+    @Test
+    void refusesSubscriptionsOverTheLimit() throws Exception {
+        LeaveEventBus bus = new LeaveEventBus(16, 1, Duration.ofHours(1));
+        LeaveEventBus.Subscription first = bus.subscribe(Set.of("u1"), new RecordingSink(null)).orElseThrow();
+
+        assertThat(bus.subscribe(Set.of("u2"), new RecordingSink(null))).isEmpty();
+        bus.unsubscribe(first);
+        assertThat(bus.subscribe(Set.of("u2"), new RecordingSink(null))).isPresent();
+        bus.close();
+    }
+
+    private static LeaveRecord leave(String id, String userId) {
+        return LeaveRecord.builder()
+                .id(id)
+                .userId(userId)
+                .startDate(LocalDate.of(2030, 1, 1))
+                .endDate(LocalDate.of(2030, 1, 2))
+                .status(LeaveRecord.LeaveStatus.PENDING)
+                .build();
+    }
+
+    // Records calls and whether close ever ran while a send was still in progress.
+    private static final class RecordingSink implements LeaveEventBus.Sink {
+        private final CountDownLatch block;
+        private final BlockingQueue<LeaveEventBus.LeaveEvent> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile boolean inSend;
+        private volatile boolean overlapped;
+        private volatile boolean slow;
+
+        private RecordingSink(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(LeaveEventBus.LeaveEvent event) throws InterruptedException {
+            inSend = true;
+            sending.countDown();
+            try {
+                if (block != null) {
+                    block.await();
+                }
+                events.add(event);
+            } finally {
+                inSend = false;
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close(boolean slow) {
+            overlapped |= inSend;
+            this.slow = slow;
+            closed.countDown();
+        }
+    }
+}
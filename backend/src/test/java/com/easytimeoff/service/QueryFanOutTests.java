@@ -0,0 +1,73 @@
+package com.easytimeoff.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class QueryFanOutTests {
+
+    @Test
+    void runsBothTasksConcurrently() {
+        QueryFanOut fanOut = new QueryFanOut(mock(DataSource.class), true, 2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // Each task waits for the other to start, so this only completes if they overlap.
+        QueryFanOut.Both<String, String> result = fanOut.both(() -> meet(bothStarted, "members"), () -> meet(bothStarted, "leaves"));
+
+        assertThat(result.first()).isEqualTo("members");
+        assertThat(result.second()).isEqualTo("leaves");
+        assertThat(fanOut.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void runsInlineWhenNoPermitIsFree() {
+        QueryFanOut fanOut = new QueryFanOut(mock(DataSource.class), true, 1);
+        Thread caller = Thread.currentThread();
+        CountDownLatch innerDone = new CountDownLatch(1);
+
+        // The forked task holds the only permit until the inner call has finished.
+        QueryFanOut.Both<Thread, Thread> outer = fanOut.both(
+                () -> {
+                    Thread second = fanOut.both(Thread::currentThread, Thread::currentThread).second();
+                    innerDone.countDown();
+                    return second;
+                },
+                () -> {
+                    await(innerDone);
+                    return caller;
+                });
+
+        assertThat(outer.first()).isSameAs(caller);
+        assertThat(fanOut.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void propagatesFailureFromForkedTask() {
+        QueryFanOut fanOut = new QueryFanOut(mock(DataSource.class), true, 1);
+
+        assertThatThrownBy(() -> fanOut.both(() -> "ok", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(fanOut.availablePermits()).isEqualTo(1);
+    }
+
+    private static String meet(CountDownLatch latch, String value) {
+        latch.countDown();
+        await(latch);
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.User;
+import com.easytimeoff.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTests {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAll()).thenReturn(List.of(
+                user("u1", "E001", "Alice Chen", "alice@company.com"),
+                user("u2", "E002", "Bob Smith", "bob@company.com"),
+                user("u3", "E003", "Charlie Kim", "charlie@company.com"),
+                user("u4", "E004", "Malice Jones", "mjones@company.com")
+        ));
+        index = new UserSearchIndex(userRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.load();
+    }
+
+    @Test
+    void matchesSubstringsAcrossAllFields() {
+        assertThat(index.search("lice", 0, 20)).extracting(User::getId).containsExactly("u1", "u4");
+        assertThat(index.search("E00", 0, 20)).hasSize(4);
+        assertThat(index.search("charlie@", 0, 20)).extracting(User::getId).containsExactly("u3");
+        assertThat(index.search("zzz", 0, 20)).isEmpty();
+    }
+
+    @Test
+    void ranksPrefixMatchesAboveInfixMatches() {
+        assertThat(index.search("ali", 0, 20)).extracting(User::getId).containsExactly("u1", "u4");
+        assertThat(index.search("e003", 0, 20)).extracting(User::getId).containsExactly("u3");
+    }
+
+    @Test
+    void paginatesRankedResults() {
+        assertThat(index.search("company", 0, 2)).extracting(User::getId).containsExactly("u1", "u2");
+        assertThat(index.search("company", 2, 2)).extracting(User::getId).containsExactly("u3", "u4");
+        assertThat(index.search("company", 4, 2)).isEmpty();
+    }
+
+    @Test
+    void reflectsUpsertsAndRemovals() {
+        index.upsert(user("u2", "E002", "Robert Smith", "bob@company.com"));
+        index.remove("u1");
+
+        assertThat(index.search("robert", 0, 20)).extracting(User::getId).containsExactly("u2");
+        assertThat(index.search("bob s", 0, 20)).isEmpty();
+        assertThat(index.search("alice", 0, 20)).extracting(User::getId).containsExactly("u4");
+    }
+
+    private static User user(String id, String employeeId, String name, String email) {
+        return User.builder()
+                .id(id)
+                .employeeID(employeeId)
+                .displayName(name)
+                .email(email)
+                .country("US")
+                .build();
+    }
+}
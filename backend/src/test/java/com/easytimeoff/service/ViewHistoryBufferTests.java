@@ -0,0 +1,88 @@
+package com.easytimeoff.service;
+
+import com.easytimeoff.domain.ViewHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ViewHistoryBufferTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final List<String> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        // Behaves like the view_history table: a batch with an over-long name fails as a whole.
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> ((String) row[4]).length() > ViewHistory.MAX_TEXT_LENGTH)) {
+                throw new DataIntegrityViolationException("Value too long for column name");
+            }
+            rows.forEach(row -> stored.add((String) row[2]));
+            return new int[rows.size()];
+        });
+    }
+
+    @Test
+    void dropsOnlyTheRowsTheDatabaseRejects() {
+        ViewHistoryBuffer buffer = new ViewHistoryBuffer(jdbcTemplate, transactionTemplate, true, Duration.ofHours(1), 100);
+        buffer.record("u1", "pod1", ViewHistory.ViewType.POD, "Pod One");
+        buffer.record("u1", "u2", ViewHistory.ViewType.USER, "x".repeat(ViewHistory.MAX_TEXT_LENGTH + 1));
+        buffer.record("u2", "vt1", ViewHistory.ViewType.TEAM, "Guild");
+
+        buffer.flush();
+
+        assertThat(stored).containsExactlyInAnyOrder("pod1", "vt1");
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(buffer.pending("u1")).isEmpty();
+        assertThat(buffer.dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheBatchWhenTheDatabaseIsUnavailable() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        ViewHistoryBuffer buffer = new ViewHistoryBuffer(jdbcTemplate, transactionTemplate, true, Duration.ofHours(1), 100);
+        buffer.record("u1", "pod1", ViewHistory.ViewType.POD, "Pod One");
+        buffer.record("u2", "vt1", ViewHistory.ViewType.TEAM, "Guild");
+
+        assertThatThrownBy(buffer::flush).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(buffer.pendingCount()).isEqualTo(2);
+        assertThat(buffer.pending("u1")).extracting(ViewHistory::getItemId).containsExactly("pod1");
+        assertThat(buffer.dropped()).isZero();
+    }
+
+    @Test
+    void rejectsNewItemsOnceFullButStillCoalesces() {
+        ViewHistoryBuffer buffer = new ViewHistoryBuffer(jdbcTemplate, transactionTemplate, true, Duration.ofHours(1), 2);
+
+        assertThat(buffer.record("u1", "pod1", ViewHistory.ViewType.POD, "Pod One")).isPresent();
+        assertThat(buffer.record("u2", "pod1", ViewHistory.ViewType.POD, "Pod One")).isPresent();
+        assertThat(buffer.record("u3", "pod1", ViewHistory.ViewType.POD, "Pod One")).isEmpty();
+        assertThat(buffer.record("u1", "pod1", ViewHistory.ViewType.POD, "Pod 1")).isPresent();
+        assertThat(buffer.pendingCount()).isEqualTo(2);
+        assertThat(buffer.pending("u3")).isEmpty();
+        assertThat(buffer.dropped()).isEqualTo(1);
+
+        buffer.flush();
+        assertThat(buffer.record("u3", "pod1", ViewHistory.ViewType.POD, "Pod One")).isPresent();
+    }
+}
@@ -0,0 +1,56 @@
+package com.easytimeoff.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdsTests {
+
+    @Test
+    void idsAreVersion7AndCarryTheirTimestamp() {
+        long before = System.currentTimeMillis();
+        String id = TimeOrderedIds.next();
+        long after = System.currentTimeMillis();
+
+        UUID uuid = UUID.fromString(id);
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(TimeOrderedIds.timestampOf(id)).isBetween(before, after + 1);
+    }
+
+    @Test
+    void idsSortInCreationOrderAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(TimeOrderedIds.next());
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                List<String> ids = future.get();
+                // Each thread sees strictly increasing ids, as strings as well as UUIDs.
+                assertThat(ids).isSortedAccordingTo(String::compareTo).doesNotHaveDuplicates();
+                all.addAll(ids);
+            }
+            assertThat(all).hasSize(8 * 20_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.easytimeoff.web;
+
+import com.easytimeoff.util.RequestQueryStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedJsonHttpMessageConverterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        RequestQueryStats.clear();
+    }
+
+    @Test
+    void buffersSmallBodiesAndTimesThem() throws Exception {
+        RequestQueryStats stats = RequestQueryStats.start();
+        TimedJsonHttpMessageConverter converter = new TimedJsonHttpMessageConverter(objectMapper, 1024);
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(List.of("a", "b"), MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo("[\"a\",\"b\"]");
+        assertThat(message.getHeaders().getContentLength()).isEqualTo(9);
+        assertThat(stats.serializationStreamed()).isFalse();
+        assertThat(ServerTimingFilter.format(stats)).contains("ser;dur=");
+    }
+
+    @Test
+    void streamsBodiesPastTheLimitWithoutSer() throws Exception {
+        RequestQueryStats stats = RequestQueryStats.start();
+        TimedJsonHttpMessageConverter converter = new TimedJsonHttpMessageConverter(objectMapper, 64);
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        List<String> rows = Collections.nCopies(1000, "row");
+
+        converter.write(rows, MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo(objectMapper.writeValueAsString(rows));
+        assertThat(message.getHeaders().getContentLength()).isEqualTo(-1);
+        assertThat(stats.serializationStreamed()).isTrue();
+        assertThat(ServerTimingFilter.format(stats)).startsWith("db;").doesNotContain("ser;");
+    }
+}